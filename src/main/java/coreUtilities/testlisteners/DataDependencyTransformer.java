@@ -0,0 +1,93 @@
+package coreUtilities.testlisteners;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.testng.IAnnotationTransformer;
+import org.testng.annotations.ITestAnnotation;
+
+import coreUtilities.testutils.Consumes;
+import coreUtilities.testutils.Produces;
+import coreUtilities.utils.AsyncLogSink;
+import restConfig.ConfigManager;
+
+/**
+ * Turns {@link Produces}/{@link Consumes} data dependencies into TestNG
+ * {@code dependsOnMethods}, so a consumer never starts before its producers,
+ * also when tests run with {@code parallel="methods"}.
+ * <p>
+ * A method consuming a name depends on every method of its class producing
+ * that name. Only these edges are added, and only when
+ * {@code scheduler.dag.enabled} is on; declared priorities are kept, so
+ * {@link DurationAwareInterceptor} still orders by them.
+ * <p>
+ * TestNG keeps only one annotation transformer per suite, so this runs through
+ * {@link RetryListener}.
+ */
+public class DataDependencyTransformer implements IAnnotationTransformer {
+
+	private static final Map<Class<?>, Map<String, List<String>>> producersByClass = new ConcurrentHashMap<>();
+
+	@Override
+	public void transform(ITestAnnotation annotation, Class testClass, Constructor testConstructor, Method testMethod) {
+		if (testMethod == null || !ConfigManager.getBoolean("scheduler.dag.enabled", true)) {
+			return;
+		}
+		Map<String, List<String>> producers = producersOf(testMethod.getDeclaringClass());
+		if (producers.isEmpty()) {
+			return;
+		}
+
+		Consumes consumes = testMethod.getAnnotation(Consumes.class);
+		if (consumes != null) {
+			Set<String> dependsOn = new LinkedHashSet<>(Arrays.asList(annotation.getDependsOnMethods()));
+			for (String name : consumes.value()) {
+				List<String> producerMethods = producers.get(name);
+				if (producerMethods == null) {
+					AsyncLogSink.log("No producer for '" + name + "' consumed by " + testMethod.getName());
+					continue;
+				}
+				for (String producer : producerMethods) {
+					if (!producer.equals(testMethod.getName())) {
+						dependsOn.add(producer);
+					}
+				}
+			}
+			annotation.setDependsOnMethods(dependsOn.toArray(new String[0]));
+		}
+	}
+
+	private static Map<String, List<String>> producersOf(Class<?> testClass) {
+		Map<String, List<String>> producers = producersByClass.get(testClass);
+		if (producers == null) {
+			producers = new ConcurrentHashMap<>();
+			for (Method method : testClass.getMethods()) {
+				Produces produces = method.getAnnotation(Produces.class);
+				if (produces == null) {
+					continue;
+				}
+				for (String name : produces.value()) {
+					List<String> methods = producers.get(name);
+					if (methods == null) {
+						methods = new ArrayList<>();
+						producers.put(name, methods);
+					}
+					methods.add(method.getName());
+				}
+			}
+			for (Map.Entry<String, List<String>> entry : producers.entrySet()) {
+				entry.setValue(Collections.unmodifiableList(entry.getValue()));
+			}
+			producersByClass.putIfAbsent(testClass, producers);
+		}
+		return producers;
+	}
+}
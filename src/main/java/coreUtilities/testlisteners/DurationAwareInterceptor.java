@@ -0,0 +1,212 @@
+package coreUtilities.testlisteners;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+import org.testng.IMethodInstance;
+import org.testng.IMethodInterceptor;
+import org.testng.ITestContext;
+import org.testng.ITestNGMethod;
+import org.testng.xml.XmlSuite.ParallelMode;
+
+import coreUtilities.testutils.RunHistoryStore;
+import coreUtilities.utils.AsyncLogSink;
+import restConfig.ConfigManager;
+
+/**
+ * Orders test methods by their historical duration so the longest work starts
+ * first (longest-processing-time-first).
+ * <p>
+ * TestNG hands the next unit of work to whichever pool thread is free, so
+ * feeding the units longest first is the LPT greedy packing over
+ * {@code thread-count} threads. With {@code parallel="classes"} the unit is a
+ * class: classes are ordered by their summed expected duration and each class
+ * keeps its methods in priority order, longest first among equal priorities.
+ * With {@code parallel="methods"} every method is a unit and methods are
+ * ordered longest first within each priority. Priority order and
+ * {@code dependsOnMethods} are never violated: a method is only emitted after
+ * the methods it depends on.
+ * <p>
+ * Expected durations are the {@code scheduler.duration.percentile} of the
+ * durations in the {@link RunHistoryStore}; methods without history get the
+ * median of the known ones. Without any history the order is left unchanged.
+ */
+public class DurationAwareInterceptor implements IMethodInterceptor {
+
+	@Override
+	public List<IMethodInstance> intercept(List<IMethodInstance> methods, ITestContext context) {
+		if (!ConfigManager.getBoolean("scheduler.duration.aware", true) || methods.size() < 2) {
+			return methods;
+		}
+		Map<IMethodInstance, Long> expected;
+		try {
+			expected = expectedDurations(methods);
+		} catch (IllegalStateException e) {
+			AsyncLogSink.log("Duration-aware ordering disabled: " + e.getMessage());
+			return methods;
+		}
+		if (expected == null) {
+			return methods;
+		}
+
+		ParallelMode parallel = context.getSuite().getXmlSuite().getParallel();
+		List<IMethodInstance> ordered;
+		if (parallel == ParallelMode.METHODS) {
+			ordered = new ArrayList<>(methods);
+			ordered.sort(byPriorityThenLongest(expected));
+		} else {
+			ordered = orderByClass(methods, expected);
+		}
+		ordered = respectDependencies(ordered);
+
+		int threads = Math.max(1, context.getSuite().getXmlSuite().getThreadCount());
+		AsyncLogSink.log("Duration-aware schedule for " + threads + " threads, expected makespan "
+				+ makespan(ordered, expected, threads, parallel) + " ms");
+		return ordered;
+	}
+
+	private static Map<IMethodInstance, Long> expectedDurations(List<IMethodInstance> methods) {
+		RunHistoryStore history = RunHistoryStore.getDefault();
+		double percentile = ConfigManager.getDouble("scheduler.duration.percentile", 75);
+		Map<IMethodInstance, Long> expected = new HashMap<>();
+		List<Long> known = new ArrayList<>();
+		for (IMethodInstance instance : methods) {
+			ITestNGMethod method = instance.getMethod();
+			long duration = history.durationPercentile(
+					RunHistoryStore.testKey(method.getRealClass().getName(), method.getMethodName()), percentile);
+			if (duration >= 0) {
+				expected.put(instance, duration);
+				known.add(duration);
+			}
+		}
+		if (known.isEmpty()) {
+			return null;
+		}
+		known.sort(null);
+		long median = known.get(known.size() / 2);
+		for (IMethodInstance instance : methods) {
+			if (!expected.containsKey(instance)) {
+				expected.put(instance, median);
+			}
+		}
+		return expected;
+	}
+
+	private static List<IMethodInstance> orderByClass(List<IMethodInstance> methods,
+			final Map<IMethodInstance, Long> expected) {
+		Map<Class<?>, List<IMethodInstance>> byClass = new LinkedHashMap<>();
+		final Map<Class<?>, Long> classTotals = new HashMap<>();
+		for (IMethodInstance instance : methods) {
+			Class<?> testClass = instance.getMethod().getRealClass();
+			List<IMethodInstance> classMethods = byClass.get(testClass);
+			if (classMethods == null) {
+				classMethods = new ArrayList<>();
+				byClass.put(testClass, classMethods);
+				classTotals.put(testClass, 0L);
+			}
+			classMethods.add(instance);
+			classTotals.put(testClass, classTotals.get(testClass) + expected.get(instance));
+		}
+		List<Class<?>> classes = new ArrayList<>(byClass.keySet());
+		classes.sort(new Comparator<Class<?>>() {
+			@Override
+			public int compare(Class<?> a, Class<?> b) {
+				return Long.compare(classTotals.get(b), classTotals.get(a));
+			}
+		});
+		List<IMethodInstance> ordered = new ArrayList<>(methods.size());
+		for (Class<?> testClass : classes) {
+			List<IMethodInstance> classMethods = byClass.get(testClass);
+			classMethods.sort(byPriorityThenLongest(expected));
+			ordered.addAll(classMethods);
+		}
+		return ordered;
+	}
+
+	private static Comparator<IMethodInstance> byPriorityThenLongest(final Map<IMethodInstance, Long> expected) {
+		return new Comparator<IMethodInstance>() {
+			@Override
+			public int compare(IMethodInstance a, IMethodInstance b) {
+				int byPriority = Integer.compare(a.getMethod().getPriority(), b.getMethod().getPriority());
+				return byPriority != 0 ? byPriority : Long.compare(expected.get(b), expected.get(a));
+			}
+		};
+	}
+
+	// moves a method behind the methods it depends on; the sort above is stable otherwise
+	private static List<IMethodInstance> respectDependencies(List<IMethodInstance> ordered) {
+		Set<String> present = new HashSet<>();
+		for (IMethodInstance instance : ordered) {
+			present.add(qualifiedName(instance.getMethod()));
+		}
+		List<IMethodInstance> result = new ArrayList<>(ordered.size());
+		Set<String> emitted = new HashSet<>();
+		List<IMethodInstance> waiting = new ArrayList<>(ordered);
+		while (!waiting.isEmpty()) {
+			boolean progress = false;
+			for (int i = 0; i < waiting.size(); i++) {
+				IMethodInstance instance = waiting.get(i);
+				if (dependenciesEmitted(instance.getMethod(), present, emitted)) {
+					result.add(instance);
+					emitted.add(qualifiedName(instance.getMethod()));
+					waiting.remove(i);
+					progress = true;
+					break;
+				}
+			}
+			if (!progress) {
+				// a cycle is TestNG's to report; keep the remaining order
+				result.addAll(waiting);
+				break;
+			}
+		}
+		return result;
+	}
+
+	private static boolean dependenciesEmitted(ITestNGMethod method, Set<String> present, Set<String> emitted) {
+		for (String dependency : method.getMethodsDependedUpon()) {
+			if (present.contains(dependency) && !emitted.contains(dependency)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static String qualifiedName(ITestNGMethod method) {
+		return method.getRealClass().getName() + "." + method.getMethodName();
+	}
+
+	// simulates the thread pool picking units in order: each unit goes to the least loaded thread
+	private static long makespan(List<IMethodInstance> ordered, Map<IMethodInstance, Long> expected, int threads,
+			ParallelMode parallel) {
+		List<Long> units = new ArrayList<>();
+		Class<?> current = null;
+		for (IMethodInstance instance : ordered) {
+			Class<?> testClass = instance.getMethod().getRealClass();
+			if (parallel == ParallelMode.METHODS || testClass != current || units.isEmpty()) {
+				units.add(expected.get(instance));
+				current = testClass;
+			} else {
+				units.set(units.size() - 1, units.get(units.size() - 1) + expected.get(instance));
+			}
+		}
+		PriorityQueue<Long> loads = new PriorityQueue<>(threads);
+		for (int i = 0; i < threads; i++) {
+			loads.add(0L);
+		}
+		long makespan = 0;
+		for (Long unit : units) {
+			long load = loads.poll() + unit;
+			makespan = Math.max(makespan, load);
+			loads.add(load);
+		}
+		return makespan;
+	}
+}
@@ -0,0 +1,231 @@
+package coreUtilities.testlisteners;
+
+import static coreUtilities.testutils.TestUtils.businessTestFile;
+import static coreUtilities.testutils.TestUtils.yakshaAssert;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import org.testng.ITestResult;
+
+import com.aventstack.extentreports.ExtentTest;
+
+import coreUtilities.testutils.ResultStreamWriter;
+import coreUtilities.testutils.RunHistoryStore;
+import coreUtilities.testutils.TestRecord;
+import coreUtilities.utils.ExtentReportManager;
+import coreUtilities.utils.Log;
+import rest.EndpointTimingFilter;
+import restConfig.ConfigManager;
+
+/**
+ * Moves reporting off the test threads. Listener callbacks publish a
+ * {@link ReportEvent} onto a lock-free multi-producer queue and return; one
+ * reporter thread consumes the events in order and does the Extent writes,
+ * result stream, run history, console output and result publishing. A single
+ * consumer keeps the Extent model, which is not safe for concurrent writes,
+ * confined to one thread.
+ */
+public class ReportingPipeline {
+
+	public enum EventType {
+		TEST_START, TEST_SUCCESS, TEST_FAILURE, TEST_SKIPPED, FLUSH
+	}
+
+	private static final Queue<ReportEvent> events = new ConcurrentLinkedQueue<>();
+	private static final Thread reporter;
+
+	// only touched by the reporter thread
+	private static final Map<ITestResult, ExtentTest> extentTests = new IdentityHashMap<>();
+
+	static {
+		ExtentReportManager.createInstance();
+		reporter = new Thread(ReportingPipeline::run, "test-reporter");
+		reporter.setDaemon(true);
+		reporter.start();
+	}
+
+	/**
+	 * Publishes an event for the reporter thread. Never blocks.
+	 *
+	 * @param type   - {@link EventType}
+	 * @param result - {@link ITestResult} of the test the event belongs to
+	 */
+	public static void publish(EventType type, ITestResult result) {
+		events.offer(new ReportEvent(type, result, null));
+		LockSupport.unpark(reporter);
+	}
+
+	/**
+	 * Waits until every event published so far has been processed and the
+	 * Extent report has been flushed.
+	 *
+	 * @param timeoutMillis - maximum time to wait
+	 * @return true if the pipeline drained within the timeout
+	 */
+	public static boolean flush(long timeoutMillis) {
+		CountDownLatch done = new CountDownLatch(1);
+		events.offer(new ReportEvent(EventType.FLUSH, null, done));
+		LockSupport.unpark(reporter);
+		try {
+			return done.await(timeoutMillis, TimeUnit.MILLISECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return false;
+		}
+	}
+
+	private static void run() {
+		while (true) {
+			ReportEvent event = events.poll();
+			if (event == null) {
+				try {
+					ResultStreamWriter.writeShared(EndpointTimingFilter.drainShared());
+					ResultStreamWriter.flush();
+					ExtentReportManager.flushIfDue();
+				} catch (Throwable t) {
+					Log.logger.error("Report flush failed", t);
+				}
+				LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(50));
+				continue;
+			}
+			try {
+				handle(event);
+			} catch (Throwable t) {
+				// an Error must not stop the only thread writing the reports
+				Log.logger.error("Report event failed", t);
+			} finally {
+				if (event.done != null) {
+					event.done.countDown();
+				}
+			}
+		}
+	}
+
+	private static void handle(ReportEvent event) {
+		switch (event.type) {
+		case TEST_START:
+			extentTest(event);
+			break;
+		case TEST_SUCCESS:
+			extentTest(event).pass("Test passed");
+			report(event.methodName, true);
+			record(event.record);
+			endTest(event);
+			break;
+		case TEST_FAILURE:
+			report(event.methodName, false);
+			extentTest(event).fail(event.throwable);
+			record(event.record);
+			endTest(event);
+			break;
+		case TEST_SKIPPED:
+			report(event.methodName, false);
+			if (event.throwable != null) {
+				extentTest(event).skip(event.throwable);
+			} else {
+				extentTest(event).skip("Test skipped");
+			}
+			record(event.record);
+			endTest(event);
+			break;
+		case FLUSH:
+			ResultStreamWriter.writeShared(EndpointTimingFilter.drainShared());
+			ResultStreamWriter.flush();
+			flushHistory();
+			ExtentReportManager.flush();
+			break;
+		}
+	}
+
+	// tests skipped because of a failed dependency never get a TEST_START
+	private static ExtentTest extentTest(ReportEvent event) {
+		ExtentTest test = extentTests.get(event.result);
+		if (test == null) {
+			test = ExtentReportManager.startTest(event.methodName, event.description);
+			extentTests.put(event.result, test);
+		}
+		return test;
+	}
+
+	private static void endTest(ReportEvent event) {
+		ExtentTest test = extentTests.remove(event.result);
+		if (test != null) {
+			ExtentReportManager.endTest(test);
+		}
+	}
+
+	private static void record(TestRecord record) {
+		ResultStreamWriter.write(record);
+		if (ConfigManager.getBoolean("history.enabled", true)) {
+			try {
+				RunHistoryStore.getDefault().append(record);
+			} catch (IOException | IllegalStateException e) {
+				e.printStackTrace();
+			}
+		}
+	}
+
+	private static void flushHistory() {
+		if (ConfigManager.getBoolean("history.enabled", true)) {
+			try {
+				RunHistoryStore.getDefault().flush();
+			} catch (IOException | IllegalStateException e) {
+				e.printStackTrace();
+			}
+		}
+	}
+
+	private static void report(String methodName, boolean passed) {
+		try {
+			yakshaAssert(methodName, passed, businessTestFile);
+		} catch (IOException e) {
+			e.printStackTrace();
+		}
+	}
+
+	/**
+	 * Everything the reporter needs, captured on the test thread.
+	 */
+	private static final class ReportEvent {
+		private final EventType type;
+		private final ITestResult result;
+		private final String methodName;
+		private final String description;
+		private final Throwable throwable;
+		private final TestRecord record;
+		private final CountDownLatch done;
+
+		private ReportEvent(EventType type, ITestResult result, CountDownLatch done) {
+			this.type = type;
+			this.result = result;
+			this.methodName = result == null ? null : result.getMethod().getMethodName();
+			this.description = result == null ? null : result.getMethod().getDescription();
+			this.throwable = result == null ? null : result.getThrowable();
+			this.record = result == null || type == EventType.TEST_START ? null : toRecord(type, result, throwable);
+			this.done = done;
+		}
+
+		// endpoint timings live in a thread local of the test thread, so the record is built here
+		private static TestRecord toRecord(EventType type, ITestResult result, Throwable throwable) {
+			String status = type == EventType.TEST_SUCCESS ? TestRecord.PASSED
+					: type == EventType.TEST_FAILURE ? TestRecord.FAILED : TestRecord.SKIPPED;
+			long duration = Math.max(0, result.getEndMillis() - result.getStartMillis());
+			return new TestRecord(result.getTestClass().getName(), result.getMethod().getMethodName(), status,
+					result.getStartMillis(), duration, throwable == null ? null : String.valueOf(throwable),
+					EndpointTimingFilter.drain(), parametersOf(result));
+		}
+
+		private static String parametersOf(ITestResult result) {
+			Object[] parameters = result.getParameters();
+			return parameters == null || parameters.length == 0 ? null : Arrays.deepToString(parameters);
+		}
+	}
+}
@@ -12,8 +12,12 @@ import coreUtilities.testutils.RetryAnalyzer;
 
 public class RetryListener implements IAnnotationTransformer
 {
+	// TestNG keeps a single annotation transformer, so the data dependencies are applied from here
+	private final DataDependencyTransformer dataDependencies = new DataDependencyTransformer();
+
 	public void transform(ITestAnnotation annotation, Class testClass, Constructor testConstructor, Method testMethod) {
 		annotation.setRetryAnalyzer(RetryAnalyzer.class);
+		dataDependencies.transform(annotation, testClass, testConstructor, testMethod);
 	}
 
 }
\ No newline at end of file
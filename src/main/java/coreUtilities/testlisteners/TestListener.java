@@ -4,76 +4,74 @@ import org.testng.ITestContext;
 import org.testng.ITestListener;
 import org.testng.ITestResult;
 
-import com.aventstack.extentreports.ExtentReports;
-import com.aventstack.extentreports.ExtentTest;
+import coreUtilities.testlisteners.ReportingPipeline.EventType;
+import coreUtilities.testutils.FixtureRegistry;
+import coreUtilities.testutils.ResultPublisher;
+import coreUtilities.utils.AsyncLogSink;
 
-import coreUtilities.utils.ExtentReportManager;
-import static coreUtilities.testutils.TestUtils.businessTestFile;
-import static coreUtilities.testutils.TestUtils.currentTest;
-import static coreUtilities.testutils.TestUtils.yakshaAssert;
+import java.time.Duration;
 
-import java.io.IOException;
+import rest.ContractFingerprintFilter;
+import rest.EndpointTimingFilter;
+import restConfig.ConfigManager;
 
 
 
+/**
+ * Callbacks only publish events to the {@link ReportingPipeline}; Extent
+ * writes, console output and result publishing happen on the reporter thread,
+ * so no callback is synchronized and test threads never wait on reporting.
+ */
 public class TestListener implements ITestListener
 {
-
-	//Extent Report Declarations
-    private static ExtentReports extent = ExtentReportManager.createInstance();
-    private static ThreadLocal<ExtentTest> test = new ThreadLocal<ExtentTest>();
  
-    public synchronized void onStart(ITestContext context) {
-        System.out.println("Extent Reports Version 3 Test Suite started!");
+    public void onStart(ITestContext context) {
+        EndpointTimingFilter.install();
+        ContractFingerprintFilter.install();
+        AsyncLogSink.log("Extent Reports Version 3 Test Suite started!");
     }
  
-    public synchronized void onFinish(ITestContext context) {
-        System.out.println(("Extent Reports Version 3  Test Suite is ending!"));
-        extent.flush();
+    public void onFinish(ITestContext context) {
+        AsyncLogSink.log("Extent Reports Version 3  Test Suite is ending!");
+        ReportingPipeline.flush(ConfigManager.getDuration("report.flush.timeout", Duration.ofSeconds(60)).toMillis());
+        FixtureRegistry.reset();
+        ContractFingerprintFilter.finish();
+        ResultPublisher.flush(ConfigManager.getDuration("results.flush.timeout", Duration.ofSeconds(30)).toMillis());
+        AsyncLogSink.flush(5000);
     }
  
-    public synchronized void onTestStart(ITestResult result) {
-        System.out.println((result.getMethod().getMethodName() + " started!"));
-        ExtentTest extentTest = extent.createTest(result.getMethod().getMethodName(),result.getMethod().getDescription());
-        test.set(extentTest);
+    public void onTestStart(ITestResult result) {
+        EndpointTimingFilter.beginTest();
+        FixtureRegistry.enterInvocation(result.getTestClass().getRealClass());
+        AsyncLogSink.beginTest(result.getMethod().getMethodName());
+        AsyncLogSink.log(result.getMethod().getMethodName() + " started!");
+        ReportingPipeline.publish(EventType.TEST_START, result);
     }
  
-    public synchronized void onTestSuccess(ITestResult result) {
-       System.out.println((result.getMethod().getMethodName() + " passed!"));
-        test.get().pass("Test passed");
-        try {
-            yakshaAssert(result.getMethod().getMethodName(), true, businessTestFile);
-        } catch (IOException e) {
-            // TODO Auto-generated catch block
-            e.printStackTrace();
-        }
+    public void onTestSuccess(ITestResult result) {
+        AsyncLogSink.log(result.getMethod().getMethodName() + " passed!");
+        AsyncLogSink.endTest();
+        FixtureRegistry.exitInvocation();
+        ReportingPipeline.publish(EventType.TEST_SUCCESS, result);
     }
  
-    public synchronized void onTestFailure(ITestResult result) {
-        System.out.println((result.getMethod().getMethodName() + " failed!"));
-        System.out.println(result.getThrowable().toString());
-        try {
-            yakshaAssert(result.getMethod().getMethodName(), false, businessTestFile);
-        } catch (IOException e) {
-            // TODO Auto-generated catch block
-            e.printStackTrace();
-        }
-        test.get().fail(result.getThrowable());
+    public void onTestFailure(ITestResult result) {
+        AsyncLogSink.log(result.getMethod().getMethodName() + " failed!");
+        AsyncLogSink.log(String.valueOf(result.getThrowable()));
+        AsyncLogSink.endTest();
+        FixtureRegistry.exitInvocation();
+        ReportingPipeline.publish(EventType.TEST_FAILURE, result);
     }
  
-    public synchronized void onTestSkipped(ITestResult result) {
-        System.out.println((result.getMethod().getMethodName() + " skipped!"));
-        try {
-            yakshaAssert(result.getMethod().getMethodName(), false, businessTestFile);
-        } catch (IOException e) {
-            // TODO Auto-generated catch block
-            e.printStackTrace();
-        }
-        test.get().skip(result.getThrowable());
+    public void onTestSkipped(ITestResult result) {
+        AsyncLogSink.log(result.getMethod().getMethodName() + " skipped!");
+        AsyncLogSink.endTest();
+        FixtureRegistry.exitInvocation();
+        ReportingPipeline.publish(EventType.TEST_SKIPPED, result);
     }
  
     public void onTestFailedButWithinSuccessPercentage(ITestResult result) {
-        System.out.println(("onTestFailedButWithinSuccessPercentage for " + result.getMethod().getMethodName()));
+        AsyncLogSink.log("onTestFailedButWithinSuccessPercentage for " + result.getMethod().getMethodName());
     }	
 
-}
\ No newline at end of file
+}
@@ -0,0 +1,20 @@
+package coreUtilities.testutils;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a test method as needing the named pieces of test data. It depends on
+ * every method of the same class annotated with {@link Produces} for one of
+ * the names.
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface Consumes {
+
+	String[] value();
+}
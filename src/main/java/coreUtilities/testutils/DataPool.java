@@ -0,0 +1,104 @@
+package coreUtilities.testutils;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+
+import coreUtilities.utils.AsyncLogSink;
+
+/**
+ * Pool of pre-created test data, e.g. appointments, so tests do not create
+ * their preconditions inline.
+ * <p>
+ * {@link #provision(int, Executor)} creates items concurrently on the given
+ * executor and offers them to a lock-free queue; {@link #take(Duration)} hands
+ * one out. When the pool is empty a taker waits for items still being created
+ * and, if none arrive, creates one itself, so a test never fails only because
+ * the pool ran dry.
+ *
+ * @param <T> type of the pooled items
+ */
+public class DataPool<T> {
+
+	private final String name;
+	private final Supplier<T> factory;
+	private final Queue<T> items = new ConcurrentLinkedQueue<>();
+	private final AtomicInteger inFlight = new AtomicInteger();
+
+	/**
+	 * @param name    - {@link String} used in log messages
+	 * @param factory - creates one item; may throw if creation fails
+	 */
+	public DataPool(String name, Supplier<T> factory) {
+		this.name = name;
+		this.factory = factory;
+	}
+
+	/**
+	 * Starts creating items in the background. Failures are logged and leave the
+	 * pool one item short.
+	 *
+	 * @param count    - number of items to create
+	 * @param executor - {@link Executor} running the creations
+	 */
+	public void provision(int count, Executor executor) {
+		for (int i = 0; i < count; i++) {
+			inFlight.incrementAndGet();
+			executor.execute(() -> {
+				try {
+					items.offer(factory.get());
+				} catch (RuntimeException e) {
+					AsyncLogSink.log("Could not provision " + name + ": " + e.getMessage());
+				} finally {
+					inFlight.decrementAndGet();
+				}
+			});
+		}
+	}
+
+	/**
+	 * Takes a pooled item, waiting up to maxWait for items still being created,
+	 * then falls back to creating one on the calling thread.
+	 *
+	 * @param maxWait - how long to wait for provisioning in progress
+	 * @return an item no other caller receives
+	 */
+	public T take(Duration maxWait) {
+		T item = items.poll();
+		long deadline = System.nanoTime() + maxWait.toNanos();
+		while (item == null && inFlight.get() > 0 && System.nanoTime() < deadline) {
+			LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(5));
+			item = items.poll();
+		}
+		return item != null ? item : factory.get();
+	}
+
+	/**
+	 * @return number of items ready to be taken
+	 */
+	public int available() {
+		return items.size();
+	}
+
+	/**
+	 * Removes and returns the items nobody took, e.g. to clean them up at suite
+	 * end.
+	 *
+	 * @return the untaken items
+	 */
+	public List<T> drain() {
+		List<T> remaining = new ArrayList<>();
+		T item;
+		while ((item = items.poll()) != null) {
+			remaining.add(item);
+		}
+		return remaining;
+	}
+}
@@ -0,0 +1,142 @@
+package coreUtilities.testutils;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import coreUtilities.utils.ExcelRowStream;
+import coreUtilities.utils.FileOperations;
+
+/**
+ * Row sources for data-driven tests. Every method returns a lazy
+ * {@code Iterator<Object[]>} that a {@code @DataProvider} can return directly;
+ * each element holds one row as a {@code Map<String, String>}. With a
+ * sequential provider rows are read as TestNG asks for them, so a large sheet
+ * or JSON array is never loaded in full. A {@code parallel = true} provider,
+ * such as the one of findMatchingPatientTest, trades that for throughput:
+ * TestNG drains the whole iterator first and fans the rows out over the
+ * suite's {@code data-provider-thread-count} threads, so all rows are held in
+ * memory. Every invocation is reported with its row, so results and timings
+ * are kept per row.
+ */
+public class DataRows {
+
+	private static final ObjectMapper mapper = new ObjectMapper();
+
+	/**
+	 * Rows of a sheet whose first row is a header, streamed through
+	 * {@link ExcelRowStream}.
+	 *
+	 * @param excelFilePath - {@link String} .xlsx location
+	 * @param sheetName     - {@link String} sheet to read
+	 * @return one element per data row
+	 */
+	public static Iterator<Object[]> excelTable(String excelFilePath, String sheetName) throws IOException {
+		final ExcelRowStream rows = new ExcelRowStream(excelFilePath, sheetName);
+		return new Iterator<Object[]>() {
+			@Override
+			public boolean hasNext() {
+				if (rows.hasNext()) {
+					return true;
+				}
+				rows.close();
+				return false;
+			}
+
+			@Override
+			public Object[] next() {
+				return new Object[] { rows.next() };
+			}
+		};
+	}
+
+	/**
+	 * A sheet in the key/value layout read by
+	 * {@link FileOperations#readExcelPOI(String, String)}, as a single row.
+	 *
+	 * @param excelFilePath - {@link String} excel location
+	 * @param sheetName     - {@link String} sheet to read
+	 * @return one element holding the whole sheet
+	 */
+	public static Iterator<Object[]> excelRecord(String excelFilePath, String sheetName) throws Exception {
+		Map<String, String> record = new FileOperations().readExcelPOI(excelFilePath, sheetName);
+		return Collections.singletonList(new Object[] { record }).iterator();
+	}
+
+	/**
+	 * Rows of a JSON file: each object of a top-level array, or the top-level
+	 * object as a single row. Scalar values are taken as text, nested values as
+	 * their JSON.
+	 *
+	 * @param jsonFilePath - {@link String} .json location
+	 * @return one element per object
+	 */
+	public static Iterator<Object[]> json(String jsonFilePath) throws IOException {
+		final JsonParser parser = mapper.getFactory().createParser(new File(jsonFilePath));
+		if (parser.nextToken() == JsonToken.START_ARRAY) {
+			parser.nextToken();
+		}
+		final MappingIterator<JsonNode> nodes = mapper.readValues(parser, JsonNode.class);
+		return new Iterator<Object[]>() {
+			@Override
+			public boolean hasNext() {
+				if (nodes.hasNext()) {
+					return true;
+				}
+				try {
+					nodes.close();
+				} catch (IOException e) {
+					// nothing left to read
+				}
+				return false;
+			}
+
+			@Override
+			public Object[] next() {
+				if (!hasNext()) {
+					throw new NoSuchElementException();
+				}
+				return new Object[] { toRow(nodes.next()) };
+			}
+		};
+	}
+
+	/**
+	 * Picks the source from a location: {@code file.json} for {@link #json},
+	 * {@code file.xlsx#Sheet} for {@link #excelTable}.
+	 *
+	 * @param location - {@link String}
+	 * @return the rows of the location
+	 */
+	public static Iterator<Object[]> from(String location) throws IOException {
+		int sheet = location.lastIndexOf('#');
+		if (sheet > 0) {
+			return excelTable(location.substring(0, sheet), location.substring(sheet + 1));
+		}
+		if (location.toLowerCase().endsWith(".json")) {
+			return json(location);
+		}
+		throw new IllegalArgumentException("Unsupported data source " + location + ", use file.json or file.xlsx#Sheet");
+	}
+
+	private static Map<String, String> toRow(JsonNode node) {
+		Map<String, String> row = new LinkedHashMap<>();
+		Iterator<Map.Entry<String, JsonNode>> fields = node.fields();
+		while (fields.hasNext()) {
+			Map.Entry<String, JsonNode> field = fields.next();
+			JsonNode value = field.getValue();
+			row.put(field.getKey(), value.isNull() ? null : value.isValueNode() ? value.asText() : value.toString());
+		}
+		return Collections.unmodifiableMap(row);
+	}
+}
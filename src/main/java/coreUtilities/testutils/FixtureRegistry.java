@@ -0,0 +1,213 @@
+package coreUtilities.testutils;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Scoped, thread-safe store for values that tests share, replacing static
+ * fields on the test classes.
+ * <p>
+ * Every value lives in the scope of its {@link Key}:
+ * <ul>
+ * <li>{@link Scope#SUITE} - one value for the whole run</li>
+ * <li>{@link Scope#CLASS} - one value per test class</li>
+ * <li>{@link Scope#THREAD} - one value per test thread</li>
+ * <li>{@link Scope#INVOCATION} - one value per test method invocation</li>
+ * </ul>
+ * Values are held in futures, so a consumer test can {@link #await} a value a
+ * producer test has not put yet, and a producer can {@link #fail} a key so its
+ * consumers stop waiting. The listener marks invocation boundaries with
+ * {@link #enterInvocation(Class)} and {@link #exitInvocation()}, which tell
+ * the registry the current test class and end the invocation scope.
+ */
+public class FixtureRegistry {
+
+	public enum Scope {
+		SUITE, CLASS, THREAD, INVOCATION
+	}
+
+	private static final Map<Key<?>, CompletableFuture<Object>> suiteValues = new ConcurrentHashMap<>();
+	private static final Map<Class<?>, Map<Key<?>, CompletableFuture<Object>>> classValues = new ConcurrentHashMap<>();
+	private static final ThreadLocal<Map<Key<?>, CompletableFuture<Object>>> threadValues = ThreadLocal
+			.withInitial(HashMap::new);
+	private static final ThreadLocal<Map<Key<?>, CompletableFuture<Object>>> invocationValues = ThreadLocal
+			.withInitial(HashMap::new);
+	private static final ThreadLocal<Class<?>> currentClass = new ThreadLocal<>();
+
+	/**
+	 * Typed name of a fixture. Keys compare by identity, so declare each one
+	 * once as a constant.
+	 *
+	 * @param <T> type of the value
+	 */
+	public static final class Key<T> {
+		private final String name;
+		private final Class<T> type;
+		private final Scope scope;
+
+		private Key(String name, Class<T> type, Scope scope) {
+			this.name = name;
+			this.type = type;
+			this.scope = scope;
+		}
+
+		public static <T> Key<T> of(String name, Class<T> type, Scope scope) {
+			return new Key<>(name, type, scope);
+		}
+
+		public String getName() {
+			return name;
+		}
+
+		public Scope getScope() {
+			return scope;
+		}
+
+		@Override
+		public String toString() {
+			return name + "[" + scope + "]";
+		}
+	}
+
+	/**
+	 * Stores a value and releases everyone waiting for it.
+	 *
+	 * @param key   - {@link Key}
+	 * @param value - the value, not null
+	 */
+	public static <T> void put(Key<T> key, T value) {
+		CompletableFuture<Object> future = futureFor(key);
+		if (!future.complete(key.type.cast(value))) {
+			// replace a value from an earlier invocation, e.g. a retried producer
+			store(key).put(key, CompletableFuture.completedFuture((Object) value));
+		}
+	}
+
+	/**
+	 * Marks the value as impossible to produce; waiting consumers fail with the
+	 * cause.
+	 *
+	 * @param key   - {@link Key}
+	 * @param cause - {@link Throwable} why the producer failed
+	 */
+	public static void fail(Key<?> key, Throwable cause) {
+		futureFor(key).completeExceptionally(cause);
+	}
+
+	/**
+	 * @param key - {@link Key}
+	 * @return the value if it has been put, otherwise null
+	 */
+	public static <T> T get(Key<T> key) {
+		CompletableFuture<Object> future = futureFor(key);
+		if (!future.isDone() || future.isCompletedExceptionally()) {
+			return null;
+		}
+		return key.type.cast(future.join());
+	}
+
+	/**
+	 * Waits for a producer to put the value.
+	 *
+	 * @param key     - {@link Key}
+	 * @param timeout - maximum time to wait
+	 * @return the value
+	 * @throws IllegalStateException when the producer failed or did not put the
+	 *                               value in time
+	 */
+	public static <T> T await(Key<T> key, Duration timeout) {
+		try {
+			return key.type.cast(futureFor(key).get(timeout.toMillis(), TimeUnit.MILLISECONDS));
+		} catch (ExecutionException e) {
+			throw new IllegalStateException("Producer of " + key + " failed", e.getCause());
+		} catch (TimeoutException e) {
+			throw new IllegalStateException("No value for " + key + " after " + timeout.toMillis() + " ms");
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Interrupted waiting for " + key, e);
+		}
+	}
+
+	/**
+	 * @param key     - {@link Key}
+	 * @param factory - creates the value when the scope has none yet
+	 * @return the value in the key's scope, created at most once per scope;
+	 *         callers racing the creation wait for it. If the factory throws,
+	 *         the scope stays empty and the next caller tries again.
+	 */
+	public static <T> T getOrCreate(Key<T> key, Supplier<T> factory) {
+		CompletableFuture<Object> future = futureFor(key);
+		if (!future.isDone()) {
+			// the future is the per-key lock: one caller creates, the rest join it
+			synchronized (future) {
+				if (!future.isDone()) {
+					future.complete(factory.get());
+				}
+			}
+		}
+		return key.type.cast(future.join());
+	}
+
+	/**
+	 * Called when a test method starts on the current thread.
+	 *
+	 * @param testClass - {@link Class} of the test
+	 */
+	public static void enterInvocation(Class<?> testClass) {
+		currentClass.set(testClass);
+		invocationValues.get().clear();
+	}
+
+	/**
+	 * Called when a test method ends on the current thread; drops its
+	 * invocation-scoped values.
+	 */
+	public static void exitInvocation() {
+		invocationValues.get().clear();
+		currentClass.remove();
+	}
+
+	/**
+	 * Drops the suite and class scoped values. Thread scoped values live as long
+	 * as their thread.
+	 */
+	public static void reset() {
+		suiteValues.clear();
+		classValues.clear();
+	}
+
+	private static CompletableFuture<Object> futureFor(Key<?> key) {
+		Map<Key<?>, CompletableFuture<Object>> store = store(key);
+		CompletableFuture<Object> future = store.get(key);
+		if (future == null) {
+			CompletableFuture<Object> created = new CompletableFuture<>();
+			CompletableFuture<Object> existing = store.putIfAbsent(key, created);
+			future = existing == null ? created : existing;
+		}
+		return future;
+	}
+
+	private static Map<Key<?>, CompletableFuture<Object>> store(Key<?> key) {
+		switch (key.scope) {
+		case SUITE:
+			return suiteValues;
+		case CLASS:
+			Class<?> testClass = currentClass.get();
+			if (testClass == null) {
+				throw new IllegalStateException(key + " used outside a test method");
+			}
+			return classValues.computeIfAbsent(testClass, c -> new ConcurrentHashMap<>());
+		case THREAD:
+			return threadValues.get();
+		default:
+			return invocationValues.get();
+		}
+	}
+}
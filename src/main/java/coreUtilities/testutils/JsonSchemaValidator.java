@@ -0,0 +1,337 @@
+package coreUtilities.testutils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import restConfig.ConfigManager;
+
+/**
+ * Validates responses against JSON Schemas compiled once into a tree of
+ * checks.
+ * <p>
+ * Schemas are read from {@code schemas/<endpoint>.json} on the classpath and
+ * support the subset the API's responses need: {@code type} (a name or a list
+ * of names), {@code required}, {@code properties}, {@code additionalProperties}
+ * (true or false), {@code items}, {@code minItems}, {@code maxItems},
+ * {@code enum}, {@code pattern}, {@code minLength}, {@code minimum} and
+ * {@code maximum}. The shipped schemas only declare value types and formats;
+ * which fields must be present, and with which values, is declared once in
+ * {@link ResponseFieldRegistry}. Validation stops once
+ * {@code schema.max.failures} failures have been collected. Arrays of at least
+ * {@code schema.parallel.threshold} items have their items checked in
+ * parallel on the common fork-join pool.
+ */
+public class JsonSchemaValidator {
+
+	private static final ObjectMapper mapper = new ObjectMapper();
+	private static final Map<String, JsonSchemaValidator> byEndpoint = new ConcurrentHashMap<>();
+	private static final JsonSchemaValidator NONE = new JsonSchemaValidator(null);
+
+	private final Check root;
+
+	private JsonSchemaValidator(Check root) {
+		this.root = root;
+	}
+
+	/**
+	 * @param endpointName - {@link String} e.g. "AllStockDetailsWithAuth"
+	 * @return the compiled schema of the endpoint, or null when it has none
+	 * @throws IllegalStateException if the schema cannot be read or compiled
+	 */
+	public static JsonSchemaValidator forEndpoint(String endpointName) {
+		JsonSchemaValidator validator = byEndpoint.computeIfAbsent(endpointName, name -> {
+			try (InputStream in = JsonSchemaValidator.class.getClassLoader()
+					.getResourceAsStream("schemas/" + name + ".json")) {
+				return in == null ? NONE : compile(mapper.readTree(in));
+			} catch (IOException | RuntimeException e) {
+				throw new IllegalStateException("Cannot compile schema of " + name, e);
+			}
+		});
+		return validator == NONE ? null : validator;
+	}
+
+	/**
+	 * @param schema - {@link JsonNode} JSON Schema
+	 * @return the compiled schema
+	 * @throws IllegalArgumentException if the schema uses an unknown type
+	 */
+	public static JsonSchemaValidator compile(JsonNode schema) {
+		return new JsonSchemaValidator(new Check(schema));
+	}
+
+	/**
+	 * @param document - {@link JsonNode} parsed response body
+	 * @return failures in the form "$.path: message", at most
+	 *         {@code schema.max.failures}, empty when the document is valid
+	 */
+	public List<String> validate(JsonNode document) {
+		Failures failures = new Failures(Math.max(1, ConfigManager.getInt("schema.max.failures", 20)),
+				Math.max(2, ConfigManager.getInt("schema.parallel.threshold", 2048)));
+		root.validate(document, Path.ROOT, failures);
+		return failures.list();
+	}
+
+	private static final class Failures {
+		private final int max;
+		private final int parallelThreshold;
+		private final AtomicInteger count = new AtomicInteger();
+		private final ConcurrentLinkedQueue<String> messages = new ConcurrentLinkedQueue<>();
+
+		private Failures(int max, int parallelThreshold) {
+			this.max = max;
+			this.parallelThreshold = parallelThreshold;
+		}
+
+		private void add(Path path, String message) {
+			if (count.getAndIncrement() < max) {
+				messages.add(path + ": " + message);
+			}
+		}
+
+		private boolean isFull() {
+			return count.get() >= max;
+		}
+
+		private List<String> list() {
+			return new ArrayList<>(messages);
+		}
+	}
+
+	private static final class Check {
+		private final Set<String> types;
+		private final List<String> required;
+		private final Map<String, Check> properties;
+		private final boolean additionalProperties;
+		private final Check items;
+		private final int minItems;
+		private final int maxItems;
+		private final Set<JsonNode> enumValues;
+		private final Pattern pattern;
+		private final int minLength;
+		private final Double minimum;
+		private final Double maximum;
+
+		private Check(JsonNode schema) {
+			Set<String> typeNames = new HashSet<>();
+			JsonNode type = schema.path("type");
+			for (JsonNode name : type.isArray() ? type : Collections.singletonList(type)) {
+				if (!name.isMissingNode()) {
+					String typeName = name.asText();
+					if (!typeName.matches("object|array|string|number|integer|boolean|null")) {
+						throw new IllegalArgumentException("Unknown schema type " + typeName);
+					}
+					typeNames.add(typeName);
+				}
+			}
+			this.types = Collections.unmodifiableSet(typeNames);
+			List<String> requiredNames = new ArrayList<>();
+			for (JsonNode name : schema.path("required")) {
+				requiredNames.add(name.asText());
+			}
+			this.required = Collections.unmodifiableList(requiredNames);
+			Map<String, Check> propertyChecks = new LinkedHashMap<>();
+			Iterator<Map.Entry<String, JsonNode>> entries = schema.path("properties").fields();
+			while (entries.hasNext()) {
+				Map.Entry<String, JsonNode> entry = entries.next();
+				propertyChecks.put(entry.getKey(), new Check(entry.getValue()));
+			}
+			this.properties = Collections.unmodifiableMap(propertyChecks);
+			this.additionalProperties = schema.path("additionalProperties").asBoolean(true);
+			this.items = schema.has("items") ? new Check(schema.get("items")) : null;
+			this.minItems = schema.path("minItems").asInt(0);
+			this.maxItems = schema.path("maxItems").asInt(Integer.MAX_VALUE);
+			Set<JsonNode> values = null;
+			if (schema.has("enum")) {
+				values = new HashSet<>();
+				for (JsonNode value : schema.get("enum")) {
+					values.add(value);
+				}
+			}
+			this.enumValues = values;
+			this.pattern = schema.has("pattern") ? Pattern.compile(schema.get("pattern").asText()) : null;
+			this.minLength = schema.path("minLength").asInt(0);
+			this.minimum = schema.has("minimum") ? schema.get("minimum").asDouble() : null;
+			this.maximum = schema.has("maximum") ? schema.get("maximum").asDouble() : null;
+		}
+
+		private void validate(JsonNode value, Path path, Failures failures) {
+			if (failures.isFull()) {
+				return;
+			}
+			if (!types.isEmpty() && !types.contains(typeOf(value))
+					&& !(types.contains("number") && value.isNumber())) {
+				failures.add(path, "expected " + String.join(" or ", types) + " but was " + typeOf(value));
+				return;
+			}
+			if (enumValues != null && !enumValues.contains(value)) {
+				failures.add(path, "value " + value + " is not one of " + enumValues);
+			}
+			if (value.isTextual()) {
+				checkText(value.asText(), path, failures);
+			} else if (value.isNumber()) {
+				checkNumber(value.asDouble(), path, failures);
+			} else if (value.isObject()) {
+				checkObject(value, path, failures);
+			} else if (value.isArray()) {
+				checkArray(value, path, failures);
+			}
+		}
+
+		private void checkText(String text, Path path, Failures failures) {
+			if (text.length() < minLength) {
+				failures.add(path, "shorter than " + minLength + " characters");
+			}
+			if (pattern != null && !pattern.matcher(text).find()) {
+				failures.add(path, "does not match " + pattern.pattern());
+			}
+		}
+
+		private void checkNumber(double number, Path path, Failures failures) {
+			if (minimum != null && number < minimum) {
+				failures.add(path, number + " is less than " + minimum);
+			}
+			if (maximum != null && number > maximum) {
+				failures.add(path, number + " is greater than " + maximum);
+			}
+		}
+
+		private void checkObject(JsonNode object, Path path, Failures failures) {
+			for (String name : required) {
+				if (!object.has(name)) {
+					failures.add(path, "missing required property " + name);
+				}
+			}
+			Iterator<Map.Entry<String, JsonNode>> fields = object.fields();
+			while (fields.hasNext() && !failures.isFull()) {
+				Map.Entry<String, JsonNode> field = fields.next();
+				Check check = properties.get(field.getKey());
+				if (check != null) {
+					check.validate(field.getValue(), new Path(path, field.getKey(), -1), failures);
+				} else if (!additionalProperties) {
+					failures.add(path, "unexpected property " + field.getKey());
+				}
+			}
+		}
+
+		private void checkArray(JsonNode array, Path path, Failures failures) {
+			if (array.size() < minItems) {
+				failures.add(path, "fewer than " + minItems + " items");
+			}
+			if (array.size() > maxItems) {
+				failures.add(path, "more than " + maxItems + " items");
+			}
+			if (items == null) {
+				return;
+			}
+			if (array.size() >= failures.parallelThreshold) {
+				ForkJoinPool.commonPool().invoke(new ItemsTask(items, array, path, failures, 0, array.size()));
+			} else {
+				checkItems(items, array, path, failures, 0, array.size());
+			}
+		}
+
+		private static void checkItems(Check items, JsonNode array, Path path, Failures failures, int from,
+				int to) {
+			for (int i = from; i < to && !failures.isFull(); i++) {
+				items.validate(array.get(i), new Path(path, null, i), failures);
+			}
+		}
+
+		private static String typeOf(JsonNode value) {
+			if (value.isObject()) {
+				return "object";
+			}
+			if (value.isArray()) {
+				return "array";
+			}
+			if (value.isTextual()) {
+				return "string";
+			}
+			if (value.isIntegralNumber()) {
+				return "integer";
+			}
+			if (value.isNumber()) {
+				return "number";
+			}
+			if (value.isBoolean()) {
+				return "boolean";
+			}
+			return "null";
+		}
+	}
+
+	// location in the document, rendered only when a failure is reported
+	private static final class Path {
+		private static final Path ROOT = new Path(null, null, -1);
+
+		private final Path parent;
+		private final String property;
+		private final int index;
+
+		private Path(Path parent, String property, int index) {
+			this.parent = parent;
+			this.property = property;
+			this.index = index;
+		}
+
+		@Override
+		public String toString() {
+			if (parent == null) {
+				return "$";
+			}
+			return parent + (property != null ? "." + property : "[" + index + "]");
+		}
+	}
+
+	private static final class ItemsTask extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
+		private static final int LEAF_SIZE = 512;
+
+		private final transient Check items;
+		private final transient JsonNode array;
+		private final transient Path path;
+		private final transient Failures failures;
+		private final int from;
+		private final int to;
+
+		private ItemsTask(Check items, JsonNode array, Path path, Failures failures, int from, int to) {
+			this.items = items;
+			this.array = array;
+			this.path = path;
+			this.failures = failures;
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		protected void compute() {
+			if (failures.isFull()) {
+				return;
+			}
+			if (to - from <= LEAF_SIZE) {
+				Check.checkItems(items, array, path, failures, from, to);
+				return;
+			}
+			int middle = (from + to) >>> 1;
+			invokeAll(new ItemsTask(items, array, path, failures, from, middle),
+					new ItemsTask(items, array, path, failures, middle, to));
+		}
+	}
+}
@@ -0,0 +1,20 @@
+package coreUtilities.testutils;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a test method as the producer of the named pieces of test data, e.g.
+ * the id of an appointment it creates. Methods annotated with
+ * {@link Consumes} for the same name run after it.
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface Produces {
+
+	String[] value();
+}
@@ -0,0 +1,234 @@
+package coreUtilities.testutils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import restConfig.ConfigManager;
+
+/**
+ * Expected response fields per endpoint, declared in a JSON file on the
+ * classpath and compiled once into validators.
+ * <p>
+ * The file ({@code validation.fields.resource}, by default
+ * {@code response_fields.json} next to the {@code schemas} folder) maps an
+ * endpoint name to an optional {@code logResponse} title and a {@code fields}
+ * object of top-level response fields, checked in file order.
+ * Every declared field must be present and not null; a rule may further hold:
+ * <ul>
+ * <li>{@code equals} - the field's text must be this value</li>
+ * <li>{@code type} - {@code object} or {@code array}, which must not be empty
+ * unless {@code allowEmpty} is true</li>
+ * <li>{@code fields} - keys the object, or every item of the array, must
+ * have</li>
+ * <li>{@code values} - key to expected value; text compares as text, anything
+ * else must match exactly</li>
+ * <li>{@code nullFields} - keys that must be absent or null</li>
+ * </ul>
+ * A validator walks the parsed response once and returns every violation
+ * rather than stopping at the first.
+ */
+public class ResponseFieldRegistry {
+
+	private static final ObjectMapper mapper = new ObjectMapper();
+	private static ResponseFieldRegistry defaultRegistry;
+
+	private final Map<String, Endpoint> endpoints;
+
+	private ResponseFieldRegistry(Map<String, Endpoint> endpoints) {
+		this.endpoints = endpoints;
+	}
+
+	/**
+	 * @return the registry read from the classpath resource
+	 *         {@code validation.fields.resource}
+	 * @throws IllegalStateException if the resource is missing or unreadable
+	 */
+	public static synchronized ResponseFieldRegistry getDefault() {
+		if (defaultRegistry == null) {
+			String resource = ConfigManager.getProperty("validation.fields.resource", "response_fields.json");
+			try (InputStream in = ResponseFieldRegistry.class.getClassLoader().getResourceAsStream(resource)) {
+				if (in == null) {
+					throw new IllegalStateException("Response field registry " + resource + " is not on the classpath");
+				}
+				defaultRegistry = load(in);
+			} catch (IOException e) {
+				throw new IllegalStateException("Cannot read response field registry " + resource, e);
+			}
+		}
+		return defaultRegistry;
+	}
+
+	/**
+	 * @param in - {@link InputStream} registry JSON
+	 * @return the compiled registry
+	 * @throws IOException              if the JSON cannot be read
+	 * @throws IllegalArgumentException if a rule is malformed
+	 */
+	public static ResponseFieldRegistry load(InputStream in) throws IOException {
+		JsonNode root = mapper.readTree(in);
+		Map<String, Endpoint> endpoints = new LinkedHashMap<>();
+		Iterator<Map.Entry<String, JsonNode>> entries = root.fields();
+		while (entries.hasNext()) {
+			Map.Entry<String, JsonNode> entry = entries.next();
+			endpoints.put(entry.getKey(), compile(entry.getKey(), entry.getValue()));
+		}
+		return new ResponseFieldRegistry(Collections.unmodifiableMap(endpoints));
+	}
+
+	/**
+	 * @param endpointName - {@link String} e.g. "createAppointmentWithAuth"
+	 * @return the endpoint's validator, or null when none is declared
+	 */
+	public Endpoint get(String endpointName) {
+		return endpoints.get(endpointName);
+	}
+
+	private static Endpoint compile(String endpointName, JsonNode definition) {
+		JsonNode fields = definition.path("fields");
+		if (!fields.isObject()) {
+			throw new IllegalArgumentException("Endpoint " + endpointName + " has no fields object");
+		}
+		List<FieldRule> rules = new ArrayList<>();
+		Iterator<Map.Entry<String, JsonNode>> entries = fields.fields();
+		while (entries.hasNext()) {
+			Map.Entry<String, JsonNode> entry = entries.next();
+			rules.add(new FieldRule(endpointName, entry.getKey(), entry.getValue()));
+		}
+		JsonNode logTitle = definition.get("logResponse");
+		return new Endpoint(logTitle == null ? null : logTitle.asText(), rules);
+	}
+
+	private static List<String> texts(JsonNode array) {
+		List<String> values = new ArrayList<>();
+		for (JsonNode value : array) {
+			values.add(value.asText());
+		}
+		return Collections.unmodifiableList(values);
+	}
+
+	/**
+	 * Compiled checks of one endpoint's response.
+	 */
+	public static final class Endpoint {
+		private final String logTitle;
+		private final List<FieldRule> rules;
+
+		private Endpoint(String logTitle, List<FieldRule> rules) {
+			this.logTitle = logTitle;
+			this.rules = rules;
+		}
+
+		/**
+		 * @return title to log the raw response under before validating, or null
+		 */
+		public String getLogTitle() {
+			return logTitle;
+		}
+
+		/**
+		 * @param response - {@link JsonNode} parsed response body
+		 * @return every violation found, empty when the response is valid
+		 */
+		public List<String> validate(JsonNode response) {
+			List<String> violations = new ArrayList<>();
+			for (FieldRule rule : rules) {
+				rule.check(response.get(rule.name), violations);
+			}
+			return violations;
+		}
+	}
+
+	private static final class FieldRule {
+		private final String name;
+		private final String equals;
+		private final String type;
+		private final boolean allowEmpty;
+		private final List<String> fields;
+		private final Map<String, JsonNode> values;
+		private final List<String> nullFields;
+
+		private FieldRule(String endpointName, String name, JsonNode rule) {
+			this.name = name;
+			this.equals = rule.has("equals") ? rule.get("equals").asText() : null;
+			this.type = rule.has("type") ? rule.get("type").asText() : null;
+			if (type != null && !type.equals("object") && !type.equals("array")) {
+				throw new IllegalArgumentException(
+						"Endpoint " + endpointName + " field " + name + " has unknown type " + type);
+			}
+			this.allowEmpty = rule.path("allowEmpty").asBoolean(false);
+			this.fields = texts(rule.path("fields"));
+			Map<String, JsonNode> expected = new LinkedHashMap<>();
+			Iterator<Map.Entry<String, JsonNode>> entries = rule.path("values").fields();
+			while (entries.hasNext()) {
+				Map.Entry<String, JsonNode> entry = entries.next();
+				expected.put(entry.getKey(), entry.getValue());
+			}
+			this.values = Collections.unmodifiableMap(expected);
+			this.nullFields = texts(rule.path("nullFields"));
+		}
+
+		private void check(JsonNode value, List<String> violations) {
+			boolean missing = value == null || value.isNull();
+			if (type != null) {
+				boolean valid = !missing && (type.equals("object") ? value.isObject() : value.isArray())
+						&& (allowEmpty || value.size() > 0);
+				if (!valid) {
+					violations.add(name + " section is missing" + (allowEmpty ? "" : " or empty") + " in the response.");
+					return;
+				}
+				if (value.isObject()) {
+					checkItem(value, name, violations);
+				} else {
+					for (int i = 0; i < value.size(); i++) {
+						checkItem(value.get(i), name + "[" + i + "]", violations);
+					}
+				}
+			} else if (equals != null) {
+				if (missing || !value.isValueNode() || !equals.equals(value.asText())) {
+					violations.add(name + " field is missing or invalid in the response.");
+				}
+			} else if (missing) {
+				violations.add(name + " field is missing in the response.");
+			}
+		}
+
+		private void checkItem(JsonNode item, String path, List<String> violations) {
+			if (!item.isObject()) {
+				violations.add(path + " is not an object.");
+				return;
+			}
+			for (String field : fields) {
+				if (!item.has(field)) {
+					violations.add("Missing field in " + path + ": " + field);
+				}
+			}
+			for (Map.Entry<String, JsonNode> expected : values.entrySet()) {
+				JsonNode actual = item.get(expected.getKey());
+				if (actual == null) {
+					continue;
+				}
+				boolean matches = expected.getValue().isTextual() ? expected.getValue().asText().equals(actual.asText())
+						: expected.getValue().equals(actual);
+				if (!matches) {
+					violations.add(expected.getKey() + " field is invalid in the response. Expected: "
+							+ expected.getValue().asText() + ", Found: " + actual.asText());
+				}
+			}
+			for (String field : nullFields) {
+				JsonNode actual = item.get(field);
+				if (actual != null && !actual.isNull()) {
+					violations.add(field + " should be null in " + path + ".");
+				}
+			}
+		}
+	}
+}
@@ -0,0 +1,266 @@
+package coreUtilities.testutils;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import coreUtilities.utils.AsyncLogSink;
+import restConfig.ConfigManager;
+
+/**
+ * Publishes test results to the results endpoint from a background thread, so
+ * the test and listener threads only enqueue a payload.
+ * <p>
+ * The worker drains the bounded queue in batches of
+ * {@code results.batch.size}. The endpoint takes one result per request, so a
+ * batch is sent as consecutive POSTs from the worker; each is retried
+ * {@code results.retry.attempts} times with exponential backoff. A 4xx answer
+ * is permanent: the payload is logged with its status, appended to the
+ * dead-letter file ({@code results.deadletter.file}) and never sent again, and
+ * the batch carries on. When the endpoint stays unreachable or answers with a
+ * 5xx, the rest of the batch is appended to a journal file
+ * ({@code results.journal.file}, one JSON document per line) and the endpoint
+ * is not tried again until {@code results.retry.pause} has passed. The journal
+ * is replayed once the endpoint answers again and on {@link #flush(long)}.
+ */
+public class ResultPublisher {
+
+	private static final int QUEUE_CAPACITY = ConfigManager.getInt("results.queue.capacity", 10000);
+	private static final BlockingQueue<String> queue = new LinkedBlockingQueue<>(QUEUE_CAPACITY);
+	private static final AtomicLong pending = new AtomicLong();
+	private static final Object journalLock = new Object();
+
+	private static final int SENT = 0;
+	private static final int REJECTED = 1;
+	private static final int FAILED = 2;
+
+	private static volatile long endpointDownUntil;
+
+	static {
+		Thread worker = new Thread(ResultPublisher::run, "result-publisher");
+		worker.setDaemon(true);
+		worker.start();
+		Runtime.getRuntime().addShutdownHook(new Thread(() -> flush(5000), "result-publisher-flush"));
+	}
+
+	/**
+	 * Queues a result payload for publishing. If the queue is full the payload
+	 * goes straight to the journal instead of blocking the caller.
+	 *
+	 * @param payload - {@link String} JSON body for the results endpoint
+	 */
+	public static void publish(String payload) {
+		pending.incrementAndGet();
+		if (!queue.offer(payload)) {
+			pending.decrementAndGet();
+			spill(journal(), Collections.singletonList(payload));
+		}
+	}
+
+	/**
+	 * Waits until every queued payload has been sent or journaled, then tries to
+	 * replay the journal once. Called at suite end.
+	 *
+	 * @param timeoutMillis - maximum time to wait
+	 */
+	public static void flush(long timeoutMillis) {
+		long deadline = System.currentTimeMillis() + timeoutMillis;
+		while (pending.get() > 0 && System.currentTimeMillis() < deadline) {
+			try {
+				Thread.sleep(10);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				return;
+			}
+		}
+		endpointDownUntil = 0;
+		replayJournal();
+	}
+
+	private static void run() {
+		replayJournal();
+		List<String> batch = new ArrayList<>();
+		while (true) {
+			try {
+				String first = queue.poll(1, TimeUnit.SECONDS);
+				if (first == null) {
+					continue;
+				}
+				batch.add(first);
+				queue.drainTo(batch, Math.max(1, ConfigManager.getInt("results.batch.size", 50)) - 1);
+				sendBatch(batch);
+				pending.addAndGet(-batch.size());
+				batch.clear();
+			} catch (InterruptedException e) {
+				return;
+			} catch (RuntimeException e) {
+				e.printStackTrace();
+				pending.addAndGet(-batch.size());
+				batch.clear();
+			}
+		}
+	}
+
+	private static void sendBatch(List<String> batch) {
+		boolean wasDown = isEndpointDown();
+		if (!sendAll(batch)) {
+			return;
+		}
+		if (wasDown || journal().exists()) {
+			replayJournal();
+		}
+	}
+
+	// sends the payloads in order; journals the rest and returns false once the endpoint is down
+	private static boolean sendAll(List<String> payloads) {
+		for (int i = 0; i < payloads.size(); i++) {
+			String payload = payloads.get(i);
+			if (payload.isEmpty()) {
+				continue;
+			}
+			int outcome = isEndpointDown() ? FAILED : sendWithRetry(payload);
+			if (outcome == REJECTED) {
+				spill(deadLetter(), Collections.singletonList(payload));
+			} else if (outcome == FAILED) {
+				spill(journal(), payloads.subList(i, payloads.size()));
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static int sendWithRetry(String payload) {
+		int attempts = Math.max(1, ConfigManager.getInt("results.retry.attempts", 3));
+		long backoff = ConfigManager.getDuration("results.retry.backoff", Duration.ofMillis(500)).toMillis();
+		for (int attempt = 1; attempt <= attempts; attempt++) {
+			try {
+				post(payload);
+				return SENT;
+			} catch (RejectedException e) {
+				// a client error is permanent; the endpoint itself is fine
+				AsyncLogSink.log("Results endpoint rejected a result, moving it to the dead-letter file: "
+						+ e.getMessage());
+				return REJECTED;
+			} catch (IOException e) {
+				if (attempt == attempts) {
+					AsyncLogSink.log("Result publishing failed, journaling: " + e.getMessage());
+					endpointDownUntil = System.currentTimeMillis()
+							+ ConfigManager.getDuration("results.retry.pause", Duration.ofSeconds(30)).toMillis();
+					return FAILED;
+				}
+				try {
+					Thread.sleep(backoff);
+				} catch (InterruptedException ie) {
+					Thread.currentThread().interrupt();
+					return FAILED;
+				}
+				backoff *= 2;
+			}
+		}
+		return FAILED;
+	}
+
+	private static void post(String payload) throws IOException {
+		URL url = new URL(ConfigManager.getProperty("results.publish.url", TestUtils.URL));
+		HttpURLConnection conn = (HttpURLConnection) url.openConnection();
+		try {
+			conn.setConnectTimeout(5000);
+			conn.setReadTimeout(15000);
+			conn.setDoOutput(true);
+			conn.setRequestMethod("POST");
+			conn.setRequestProperty("Content-Type", "application/json");
+			try (OutputStream os = conn.getOutputStream()) {
+				os.write(payload.getBytes(StandardCharsets.UTF_8));
+			}
+			int code = conn.getResponseCode();
+			if (code >= 500) {
+				throw new IOException("Results endpoint returned " + code);
+			}
+			// drain the body so the connection can be reused
+			try (InputStream in = code >= 400 ? conn.getErrorStream() : conn.getInputStream()) {
+				if (in != null) {
+					byte[] buffer = new byte[1024];
+					while (in.read(buffer) != -1) {
+					}
+				}
+			}
+			if (code >= 400) {
+				throw new RejectedException("Results endpoint returned " + code + " " + conn.getResponseMessage());
+			}
+		} catch (IOException e) {
+			conn.disconnect();
+			throw e;
+		}
+	}
+
+	private static boolean isEndpointDown() {
+		return System.currentTimeMillis() < endpointDownUntil;
+	}
+
+	private static File journal() {
+		return new File(ConfigManager.getProperty("results.journal.file", "./results-journal.ndjson"));
+	}
+
+	private static File deadLetter() {
+		return new File(ConfigManager.getProperty("results.deadletter.file", "./results-deadletter.ndjson"));
+	}
+
+	private static void spill(File file, List<String> payloads) {
+		synchronized (journalLock) {
+			try (BufferedWriter writer = Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8,
+					StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+				for (String payload : payloads) {
+					writer.write(payload);
+					writer.newLine();
+				}
+			} catch (IOException e) {
+				e.printStackTrace();
+			}
+		}
+	}
+
+	private static void replayJournal() {
+		List<String> payloads;
+		File journal = journal();
+		synchronized (journalLock) {
+			if (!journal.exists()) {
+				return;
+			}
+			File replaying = new File(journal.getPath() + ".replaying");
+			try {
+				Files.move(journal.toPath(), replaying.toPath(), StandardCopyOption.REPLACE_EXISTING);
+				payloads = Files.readAllLines(replaying.toPath(), StandardCharsets.UTF_8);
+				Files.delete(replaying.toPath());
+			} catch (IOException e) {
+				e.printStackTrace();
+				return;
+			}
+		}
+		sendAll(payloads);
+	}
+
+	// the endpoint answered with a client error
+	private static final class RejectedException extends IOException {
+		private static final long serialVersionUID = 1L;
+
+		private RejectedException(String message) {
+			super(message);
+		}
+	}
+}
@@ -0,0 +1,256 @@
+package coreUtilities.testutils;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import restConfig.ConfigManager;
+import rest.EndpointTimingFilter.EndpointTiming;
+
+/**
+ * Machine-readable result stream written while the run is in progress, so CI
+ * dashboards and shard mergers can read results before the suite ends.
+ * <p>
+ * Every finished test becomes one JSON line in {@code results.stream.file} and
+ * one {@code <testcase>} in the JUnit XML file {@code results.junit.file}.
+ * Requests made outside tests are written as JSON lines of type
+ * {@code "requests"}, without a test case. Records are buffered and written
+ * through a {@link FileChannel} once {@code results.stream.batch.size} have
+ * accumulated or when {@link #flush()} is called. The NDJSON file is only ever
+ * appended to; the XML file has its {@code <testsuite>} counts and closing tag
+ * rewritten after every batch so it is well-formed and current at all times.
+ * <p>
+ * Not thread-safe; it is driven by the reporter thread.
+ */
+public class ResultStreamWriter {
+
+	private static final ObjectMapper mapper = new ObjectMapper();
+	private static final String JUNIT_FOOTER = "</testsuite>\n";
+	// counts are rewritten in place, so the header is padded to the widest counts
+	private static final int MAX_COUNT = 1000000000;
+
+	private static final List<TestRecord> pending = new ArrayList<>();
+	private static final List<String> pendingLines = new ArrayList<>();
+	private static FileChannel ndjson;
+	private static FileChannel junit;
+	private static long junitBodyEnd;
+	private static int junitHeaderWidth;
+	private static int tests;
+	private static int failures;
+	private static int skipped;
+	private static boolean failed;
+
+	/**
+	 * Buffers a record and writes the buffer out when the batch is full.
+	 *
+	 * @param record - {@link TestRecord}
+	 */
+	public static void write(TestRecord record) {
+		pending.add(record);
+		if (pending.size() >= Math.max(1, ConfigManager.getInt("results.stream.batch.size", 20))) {
+			flush();
+		}
+	}
+
+	/**
+	 * Buffers the timings of requests made outside tests as one JSON line.
+	 *
+	 * @param timings - {@link List} of {@link EndpointTiming}, may be empty
+	 */
+	public static void writeShared(List<EndpointTiming> timings) {
+		if (timings.isEmpty() || failed) {
+			return;
+		}
+		ObjectNode node = mapper.createObjectNode();
+		node.put("type", "requests");
+		node.put("time", System.currentTimeMillis());
+		appendEndpoints(node, timings);
+		try {
+			pendingLines.add(mapper.writeValueAsString(node));
+		} catch (JsonProcessingException e) {
+			e.printStackTrace();
+		}
+	}
+
+	/**
+	 * Writes all buffered records to both files.
+	 */
+	public static void flush() {
+		if ((pending.isEmpty() && pendingLines.isEmpty()) || failed) {
+			pending.clear();
+			pendingLines.clear();
+			return;
+		}
+		try {
+			open();
+			StringBuilder lines = new StringBuilder();
+			StringBuilder cases = new StringBuilder();
+			for (String line : pendingLines) {
+				lines.append(line).append('\n');
+			}
+			for (TestRecord record : pending) {
+				lines.append(toJson(record)).append('\n');
+				appendTestCase(cases, record);
+				count(record);
+			}
+			writeFully(ndjson, lines, ndjson.size());
+			if (!pending.isEmpty()) {
+				junitBodyEnd += writeFully(junit, cases, junitBodyEnd);
+				writeFully(junit, JUNIT_FOOTER, junitBodyEnd);
+				junit.truncate(junitBodyEnd + JUNIT_FOOTER.length());
+				writeFully(junit, junitHeader(), 0);
+			}
+		} catch (IOException e) {
+			// keep the run going; the Extent report and result publishing are unaffected
+			failed = true;
+			e.printStackTrace();
+		} finally {
+			pending.clear();
+			pendingLines.clear();
+		}
+	}
+
+	private static void open() throws IOException {
+		if (ndjson != null) {
+			return;
+		}
+		File ndjsonFile = new File(ConfigManager.getProperty("results.stream.file", "./TestReport/results.ndjson"));
+		File junitFile = new File(ConfigManager.getProperty("results.junit.file", "./TestReport/junit-results.xml"));
+		mkdirs(ndjsonFile);
+		mkdirs(junitFile);
+		ndjson = FileChannel.open(ndjsonFile.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+				StandardOpenOption.TRUNCATE_EXISTING);
+		junit = FileChannel.open(junitFile.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+				StandardOpenOption.TRUNCATE_EXISTING);
+		junitHeaderWidth = testsuiteHeader(MAX_COUNT, MAX_COUNT, MAX_COUNT).length();
+		junitBodyEnd = writeFully(junit, junitHeader(), 0);
+	}
+
+	private static void count(TestRecord record) {
+		tests = Math.min(tests + 1, MAX_COUNT);
+		if (TestRecord.FAILED.equals(record.getStatus())) {
+			failures = Math.min(failures + 1, MAX_COUNT);
+		} else if (TestRecord.SKIPPED.equals(record.getStatus())) {
+			skipped = Math.min(skipped + 1, MAX_COUNT);
+		}
+	}
+
+	private static String junitHeader() {
+		return testsuiteHeader(tests, failures, skipped);
+	}
+
+	private static String testsuiteHeader(int tests, int failures, int skipped) {
+		StringBuilder header = new StringBuilder("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n<testsuite name=\"")
+				.append(escape(ConfigManager.getProperty("results.junit.suite", "RestAssured"))).append("\" tests=\"")
+				.append(tests).append("\" failures=\"").append(failures).append("\" errors=\"0\" skipped=\"")
+				.append(skipped).append('"');
+		// whitespace before the closing bracket keeps the width fixed
+		while (header.length() < junitHeaderWidth - 2) {
+			header.append(' ');
+		}
+		return header.append(">\n").toString();
+	}
+
+	private static void mkdirs(File file) {
+		File parent = file.getAbsoluteFile().getParentFile();
+		if (parent != null) {
+			parent.mkdirs();
+		}
+	}
+
+	private static int writeFully(FileChannel channel, CharSequence text, long position) throws IOException {
+		ByteBuffer buffer = ByteBuffer.wrap(text.toString().getBytes(StandardCharsets.UTF_8));
+		int written = buffer.remaining();
+		while (buffer.hasRemaining()) {
+			position += channel.write(buffer, position);
+		}
+		return written;
+	}
+
+	private static String toJson(TestRecord record) throws JsonProcessingException {
+		ObjectNode node = mapper.createObjectNode();
+		node.put("class", record.getClassName());
+		node.put("name", record.getMethodName());
+		if (record.getParameters() != null) {
+			node.put("parameters", record.getParameters());
+		}
+		node.put("status", record.getStatus());
+		node.put("start", record.getStartMillis());
+		node.put("durationMillis", record.getDurationMillis());
+		if (record.getFailureMessage() != null) {
+			node.put("failure", record.getFailureMessage());
+		}
+		appendEndpoints(node, record.getEndpointTimings());
+		return mapper.writeValueAsString(node);
+	}
+
+	private static void appendEndpoints(ObjectNode node, List<EndpointTiming> timings) {
+		ArrayNode endpoints = node.putArray("endpoints");
+		for (EndpointTiming timing : timings) {
+			endpoints.addObject().put("method", timing.getMethod()).put("endpoint", timing.getEndpoint())
+					.put("status", timing.getStatus()).put("millis", timing.getMillis());
+		}
+	}
+
+	private static void appendTestCase(StringBuilder xml, TestRecord record) {
+		xml.append("  <testcase classname=\"").append(escape(record.getClassName())).append("\" name=\"")
+				.append(escape(record.getParameters() == null ? record.getMethodName()
+						: record.getMethodName() + record.getParameters()))
+				.append("\" time=\"")
+				.append(String.format(Locale.ROOT, "%.3f", record.getDurationMillis() / 1000.0)).append('"');
+		if (TestRecord.PASSED.equals(record.getStatus())) {
+			xml.append("/>\n");
+			return;
+		}
+		xml.append(">\n");
+		if (TestRecord.SKIPPED.equals(record.getStatus())) {
+			xml.append("    <skipped/>\n");
+		} else {
+			xml.append("    <failure message=\"").append(escape(record.getFailureMessage())).append("\"/>\n");
+		}
+		xml.append("  </testcase>\n");
+	}
+
+	private static String escape(String text) {
+		if (text == null) {
+			return "";
+		}
+		StringBuilder escaped = new StringBuilder(text.length());
+		for (int i = 0; i < text.length(); i++) {
+			char c = text.charAt(i);
+			switch (c) {
+			case '&':
+				escaped.append("&amp;");
+				break;
+			case '<':
+				escaped.append("&lt;");
+				break;
+			case '>':
+				escaped.append("&gt;");
+				break;
+			case '"':
+				escaped.append("&quot;");
+				break;
+			default:
+				// characters not allowed in XML 1.0
+				if (c < 0x20 && c != '\t' && c != '\n' && c != '\r') {
+					escaped.append(' ');
+				} else {
+					escaped.append(c);
+				}
+			}
+		}
+		return escaped.toString();
+	}
+}
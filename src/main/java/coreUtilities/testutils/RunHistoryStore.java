@@ -0,0 +1,512 @@
+package coreUtilities.testutils;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.zip.CRC32;
+
+import rest.EndpointTimingFilter.EndpointTiming;
+import restConfig.ConfigManager;
+
+/**
+ * Local history of test and endpoint durations across runs.
+ * <p>
+ * Every finished test is appended to a binary log ({@code history.file}) as a
+ * length-prefixed record with a CRC32 trailer: run id, test key, status,
+ * duration and the endpoint timings of the test. Records are only appended
+ * while a run is in progress; a torn record at the end of the log, e.g. from a
+ * killed run, is cut off when the store is opened. On open the log is scanned
+ * once into an in-memory index that keeps the last {@code history.max.samples}
+ * samples per test and per endpoint, which the query methods read. If the log
+ * holds more than {@code history.max.runs} runs, it is compacted on open to
+ * the records of the latest ones, so the log and the scan stay bounded.
+ * <p>
+ * Tests are keyed by {@code className.methodName}. An invocation with
+ * data-provider parameters is kept under
+ * {@code className.methodName[parameters]}; the method key then holds one
+ * sample per run, the sum of that run's invocations, failed if any of them
+ * failed. Endpoints are keyed by {@code METHOD path}. All methods are
+ * synchronized; appends come from the reporter thread and queries mostly from
+ * suite setup.
+ */
+public class RunHistoryStore {
+
+	private static final int FORMAT_VERSION = 1;
+	// longer parameter lists are keyed by their hash, writeUTF takes at most 64 KB
+	private static final int MAX_PARAMETERS_LENGTH = 200;
+	private static RunHistoryStore defaultStore;
+
+	private final File file;
+	private final long runId = System.currentTimeMillis();
+	private final int maxSamples;
+	private final int maxRuns;
+	private final Map<String, Deque<TestSample>> tests = new HashMap<>();
+	private final Map<String, Deque<Long>> endpoints = new HashMap<>();
+	private final ByteArrayOutputStream recordBytes = new ByteArrayOutputStream(256);
+	private FileChannel channel;
+
+	public RunHistoryStore(File file, int maxSamples) throws IOException {
+		this(file, maxSamples, Integer.MAX_VALUE);
+	}
+
+	/**
+	 * @param file       - {@link File} the log
+	 * @param maxSamples - samples kept in memory per test and endpoint
+	 * @param maxRuns    - runs kept in the log; older runs are compacted away
+	 *                   on open
+	 */
+	public RunHistoryStore(File file, int maxSamples, int maxRuns) throws IOException {
+		this.file = file;
+		this.maxSamples = Math.max(1, maxSamples);
+		this.maxRuns = Math.max(1, maxRuns);
+		load();
+	}
+
+	/**
+	 * @return the store at {@code history.file}, opened on first use
+	 */
+	public static synchronized RunHistoryStore getDefault() {
+		if (defaultStore == null) {
+			File file = new File(ConfigManager.getProperty("history.file", "./run-history/history.log"));
+			try {
+				defaultStore = new RunHistoryStore(file, ConfigManager.getInt("history.max.samples", 200),
+						ConfigManager.getInt("history.max.runs", 50));
+			} catch (IOException e) {
+				throw new IllegalStateException("Cannot open run history " + file, e);
+			}
+		}
+		return defaultStore;
+	}
+
+	/**
+	 * @param className  - {@link String}
+	 * @param methodName - {@link String}
+	 * @return the key tests are stored under
+	 */
+	public static String testKey(String className, String methodName) {
+		return className + "." + methodName;
+	}
+
+	/**
+	 * @param className  - {@link String}
+	 * @param methodName - {@link String}
+	 * @param parameters - {@link String} data-provider parameters, or null
+	 * @return the key one invocation is stored under
+	 */
+	public static String testKey(String className, String methodName, String parameters) {
+		if (parameters == null) {
+			return testKey(className, methodName);
+		}
+		if (parameters.length() > MAX_PARAMETERS_LENGTH) {
+			parameters = "[#" + Integer.toHexString(parameters.hashCode()) + "]";
+		}
+		return testKey(className, methodName) + parameters;
+	}
+
+	/**
+	 * @return id of the current run, the time the store was opened
+	 */
+	public long getRunId() {
+		return runId;
+	}
+
+	/**
+	 * Appends a finished test to the log and the index.
+	 *
+	 * @param record - {@link TestRecord}
+	 */
+	public synchronized void append(TestRecord record) throws IOException {
+		String key = testKey(record.getClassName(), record.getMethodName(), record.getParameters());
+		recordBytes.reset();
+		DataOutputStream out = new DataOutputStream(recordBytes);
+		out.writeByte(FORMAT_VERSION);
+		out.writeLong(runId);
+		out.writeUTF(key);
+		out.writeByte(statusCode(record.getStatus()));
+		out.writeLong(record.getStartMillis());
+		out.writeLong(record.getDurationMillis());
+		out.writeShort(record.getEndpointTimings().size());
+		for (EndpointTiming timing : record.getEndpointTimings()) {
+			out.writeUTF(endpointKey(timing));
+			out.writeShort(timing.getStatus());
+			out.writeLong(timing.getMillis());
+		}
+		out.flush();
+
+		writeFrame(channel, recordBytes.toByteArray());
+
+		indexTest(key, new TestSample(runId, statusCode(record.getStatus()), record.getDurationMillis()));
+		for (EndpointTiming timing : record.getEndpointTimings()) {
+			indexEndpoint(endpointKey(timing), timing.getMillis());
+		}
+	}
+
+	/**
+	 * Forces appended records to disk.
+	 */
+	public synchronized void flush() throws IOException {
+		channel.force(false);
+	}
+
+	/**
+	 * @return every test key with history, sorted
+	 */
+	public synchronized Set<String> testKeys() {
+		return new TreeSet<>(tests.keySet());
+	}
+
+	/**
+	 * @param testKey - {@link String} see {@link #testKey(String, String)}
+	 * @param n       - maximum number of samples
+	 * @return the last n durations in milliseconds, oldest first
+	 */
+	public synchronized List<Long> lastDurations(String testKey, int n) {
+		Deque<TestSample> samples = tests.get(testKey);
+		if (samples == null || n <= 0) {
+			return Collections.emptyList();
+		}
+		List<Long> durations = new ArrayList<>(Math.min(n, samples.size()));
+		Iterator<TestSample> newestFirst = samples.descendingIterator();
+		while (newestFirst.hasNext() && durations.size() < n) {
+			durations.add(newestFirst.next().durationMillis);
+		}
+		Collections.reverse(durations);
+		return durations;
+	}
+
+	/**
+	 * @param testKey    - {@link String}
+	 * @param percentile - 0 to 100
+	 * @return the duration percentile over the retained samples, or -1 without
+	 *         history
+	 */
+	public synchronized long durationPercentile(String testKey, double percentile) {
+		Deque<TestSample> samples = tests.get(testKey);
+		if (samples == null) {
+			return -1;
+		}
+		long[] durations = new long[samples.size()];
+		int i = 0;
+		for (TestSample sample : samples) {
+			durations[i++] = sample.durationMillis;
+		}
+		return percentile(durations, percentile);
+	}
+
+	/**
+	 * Percentile of each run's duration over a sliding window, to spot slow
+	 * drifts: element i covers runs i to i + window - 1, oldest first.
+	 *
+	 * @param testKey    - {@link String}
+	 * @param percentile - 0 to 100
+	 * @param window     - number of samples per point
+	 * @return one percentile per window position
+	 */
+	public synchronized List<Long> durationTrend(String testKey, double percentile, int window) {
+		List<Long> durations = lastDurations(testKey, maxSamples);
+		if (window <= 0 || durations.size() < window) {
+			return Collections.emptyList();
+		}
+		List<Long> trend = new ArrayList<>(durations.size() - window + 1);
+		long[] slice = new long[window];
+		for (int start = 0; start + window <= durations.size(); start++) {
+			for (int i = 0; i < window; i++) {
+				slice[i] = durations.get(start + i);
+			}
+			trend.add(percentile(slice, percentile));
+		}
+		return trend;
+	}
+
+	/**
+	 * @param testKey - {@link String}
+	 * @return share of retained runs that failed, 0 without history
+	 */
+	public synchronized double failureRate(String testKey) {
+		Deque<TestSample> samples = tests.get(testKey);
+		if (samples == null || samples.isEmpty()) {
+			return 0;
+		}
+		int failures = 0;
+		for (TestSample sample : samples) {
+			if (sample.status == 1) {
+				failures++;
+			}
+		}
+		return failures / (double) samples.size();
+	}
+
+	/**
+	 * Flakiness as the share of consecutive runs whose outcome flipped between
+	 * pass and fail; skipped runs are ignored. A test that always passes or
+	 * always fails scores 0.
+	 *
+	 * @param testKey - {@link String}
+	 * @return flip rate between 0 and 1
+	 */
+	public synchronized double flakinessRate(String testKey) {
+		Deque<TestSample> samples = tests.get(testKey);
+		if (samples == null) {
+			return 0;
+		}
+		int previous = -1;
+		int transitions = 0;
+		int flips = 0;
+		for (TestSample sample : samples) {
+			if (sample.status == 2) {
+				continue;
+			}
+			if (previous >= 0) {
+				transitions++;
+				if (previous != sample.status) {
+					flips++;
+				}
+			}
+			previous = sample.status;
+		}
+		return transitions == 0 ? 0 : flips / (double) transitions;
+	}
+
+	/**
+	 * @param endpointKey - {@link String} e.g. "GET /api/Appointment/..."
+	 * @param percentile  - 0 to 100
+	 * @return the latency percentile in milliseconds, or -1 without history
+	 */
+	public synchronized long endpointPercentile(String endpointKey, double percentile) {
+		Deque<Long> samples = endpoints.get(endpointKey);
+		if (samples == null) {
+			return -1;
+		}
+		long[] latencies = new long[samples.size()];
+		int i = 0;
+		for (Long latency : samples) {
+			latencies[i++] = latency;
+		}
+		return percentile(latencies, percentile);
+	}
+
+	/**
+	 * @return every endpoint key with history, sorted
+	 */
+	public synchronized Set<String> endpointKeys() {
+		return new TreeSet<>(endpoints.keySet());
+	}
+
+	private void load() throws IOException {
+		File parent = file.getAbsoluteFile().getParentFile();
+		if (parent != null) {
+			parent.mkdirs();
+		}
+		channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.READ,
+				StandardOpenOption.WRITE);
+		List<byte[]> payloads = new ArrayList<>();
+		long validEnd = 0;
+		channel.position(0);
+		InputStream raw = new BufferedInputStream(Channels.newInputStream(channel), 64 * 1024);
+		DataInputStream in = new DataInputStream(raw);
+		while (true) {
+			try {
+				int length = in.readInt();
+				if (length <= 0 || length > 1 << 20) {
+					break;
+				}
+				byte[] payload = new byte[length];
+				in.readFully(payload);
+				CRC32 crc = new CRC32();
+				crc.update(payload);
+				if (in.readLong() != crc.getValue()) {
+					break;
+				}
+				validEnd += 4 + length + 8;
+				payloads.add(payload);
+			} catch (EOFException e) {
+				break;
+			}
+		}
+
+		Set<Long> runs = new LinkedHashSet<>();
+		for (byte[] payload : payloads) {
+			runs.add(runIdOf(payload));
+		}
+		runs.remove(-1L);
+		if (runs.size() > maxRuns) {
+			List<Long> ordered = new ArrayList<>(runs);
+			Set<Long> kept = new HashSet<>(ordered.subList(ordered.size() - maxRuns, ordered.size()));
+			List<byte[]> retained = new ArrayList<>();
+			for (byte[] payload : payloads) {
+				if (kept.contains(runIdOf(payload))) {
+					retained.add(payload);
+				}
+			}
+			payloads = retained;
+			compact(payloads);
+		} else if (validEnd < channel.size()) {
+			// torn or corrupt tail
+			channel.truncate(validEnd);
+		}
+		channel.position(channel.size());
+		for (byte[] payload : payloads) {
+			readRecord(payload);
+		}
+	}
+
+	// rewrites the log with the given records and swaps it in
+	private void compact(List<byte[]> payloads) throws IOException {
+		File compacted = new File(file.getPath() + ".compacting");
+		try (FileChannel out = FileChannel.open(compacted.toPath(), StandardOpenOption.CREATE,
+				StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+			for (byte[] payload : payloads) {
+				writeFrame(out, payload);
+			}
+			out.force(false);
+		}
+		channel.close();
+		Files.move(compacted.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING,
+				StandardCopyOption.ATOMIC_MOVE);
+		channel = FileChannel.open(file.toPath(), StandardOpenOption.READ, StandardOpenOption.WRITE);
+	}
+
+	private static void writeFrame(FileChannel out, byte[] payload) throws IOException {
+		CRC32 crc = new CRC32();
+		crc.update(payload);
+		ByteBuffer buffer = ByteBuffer.allocate(4 + payload.length + 8);
+		buffer.putInt(payload.length).put(payload).putLong(crc.getValue());
+		buffer.flip();
+		while (buffer.hasRemaining()) {
+			out.write(buffer);
+		}
+	}
+
+	// -1 for records of an unknown format
+	private static long runIdOf(byte[] payload) {
+		if (payload.length < 9 || payload[0] != FORMAT_VERSION) {
+			return -1;
+		}
+		return ByteBuffer.wrap(payload, 1, 8).getLong();
+	}
+
+	private void readRecord(byte[] payload) throws IOException {
+		DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload));
+		if (in.readByte() != FORMAT_VERSION) {
+			return;
+		}
+		long run = in.readLong();
+		String key = in.readUTF();
+		int status = in.readByte();
+		in.readLong(); // start time
+		long duration = in.readLong();
+		indexTest(key, new TestSample(run, status, duration));
+		int endpointCount = in.readUnsignedShort();
+		for (int i = 0; i < endpointCount; i++) {
+			String endpoint = in.readUTF();
+			in.readShort();
+			indexEndpoint(endpoint, in.readLong());
+		}
+	}
+
+	// a parameterized invocation also adds to its method's total for the run, which the scheduler orders by
+	private void indexTest(String key, TestSample sample) {
+		index(key, sample);
+		int parameters = key.indexOf('[');
+		if (parameters <= 0) {
+			return;
+		}
+		Deque<TestSample> methodSamples = tests.get(key.substring(0, parameters));
+		TestSample last = methodSamples == null ? null : methodSamples.peekLast();
+		if (last != null && last.runId == sample.runId) {
+			methodSamples.removeLast();
+			methodSamples.addLast(last.plus(sample));
+		} else {
+			index(key.substring(0, parameters), sample);
+		}
+	}
+
+	private void index(String key, TestSample sample) {
+		Deque<TestSample> samples = tests.get(key);
+		if (samples == null) {
+			samples = new ArrayDeque<>();
+			tests.put(key, samples);
+		}
+		samples.addLast(sample);
+		if (samples.size() > maxSamples) {
+			samples.removeFirst();
+		}
+	}
+
+	private void indexEndpoint(String key, long millis) {
+		Deque<Long> samples = endpoints.get(key);
+		if (samples == null) {
+			samples = new ArrayDeque<>();
+			endpoints.put(key, samples);
+		}
+		samples.addLast(millis);
+		if (samples.size() > maxSamples) {
+			samples.removeFirst();
+		}
+	}
+
+	private static String endpointKey(EndpointTiming timing) {
+		return timing.getMethod() + " " + timing.getEndpoint();
+	}
+
+	private static int statusCode(String status) {
+		if (TestRecord.PASSED.equals(status)) {
+			return 0;
+		}
+		return TestRecord.FAILED.equals(status) ? 1 : 2;
+	}
+
+	// nearest-rank percentile
+	private static long percentile(long[] values, double percentile) {
+		if (values.length == 0) {
+			return -1;
+		}
+		long[] sorted = values.clone();
+		Arrays.sort(sorted);
+		int rank = (int) Math.ceil(Math.max(0, Math.min(100, percentile)) / 100.0 * sorted.length);
+		return sorted[Math.max(0, rank - 1)];
+	}
+
+	private static final class TestSample {
+		private final long runId;
+		private final int status;
+		private final long durationMillis;
+
+		private TestSample(long runId, int status, long durationMillis) {
+			this.runId = runId;
+			this.status = status;
+			this.durationMillis = durationMillis;
+		}
+
+		// failed wins over passed, passed over skipped
+		private TestSample plus(TestSample other) {
+			int combined = status == 1 || other.status == 1 ? 1 : status == 0 || other.status == 0 ? 0 : 2;
+			return new TestSample(runId, combined, durationMillis + other.durationMillis);
+		}
+	}
+}
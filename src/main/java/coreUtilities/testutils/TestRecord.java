@@ -0,0 +1,81 @@
+package coreUtilities.testutils;
+
+import java.util.Collections;
+import java.util.List;
+
+import rest.EndpointTimingFilter.EndpointTiming;
+
+/**
+ * Outcome of one finished test invocation as captured on the test thread:
+ * name, data-provider parameters, status, timing, failure message and the
+ * endpoint requests it made.
+ */
+public class TestRecord {
+
+	public static final String PASSED = "PASSED";
+	public static final String FAILED = "FAILED";
+	public static final String SKIPPED = "SKIPPED";
+
+	private final String className;
+	private final String methodName;
+	private final String status;
+	private final long startMillis;
+	private final long durationMillis;
+	private final String failureMessage;
+	private final List<EndpointTiming> endpointTimings;
+	private final String parameters;
+
+	public TestRecord(String className, String methodName, String status, long startMillis, long durationMillis,
+			String failureMessage, List<EndpointTiming> endpointTimings) {
+		this(className, methodName, status, startMillis, durationMillis, failureMessage, endpointTimings, null);
+	}
+
+	public TestRecord(String className, String methodName, String status, long startMillis, long durationMillis,
+			String failureMessage, List<EndpointTiming> endpointTimings, String parameters) {
+		this.className = className;
+		this.methodName = methodName;
+		this.status = status;
+		this.startMillis = startMillis;
+		this.durationMillis = durationMillis;
+		this.failureMessage = failureMessage;
+		this.endpointTimings = endpointTimings == null ? Collections.<EndpointTiming>emptyList()
+				: Collections.unmodifiableList(endpointTimings);
+		this.parameters = parameters;
+	}
+
+	public String getClassName() {
+		return className;
+	}
+
+	public String getMethodName() {
+		return methodName;
+	}
+
+	public String getStatus() {
+		return status;
+	}
+
+	public long getStartMillis() {
+		return startMillis;
+	}
+
+	public long getDurationMillis() {
+		return durationMillis;
+	}
+
+	public String getFailureMessage() {
+		return failureMessage;
+	}
+
+	public List<EndpointTiming> getEndpointTimings() {
+		return endpointTimings;
+	}
+
+	/**
+	 * @return the data-provider row of this invocation, or null for a test
+	 *         without parameters
+	 */
+	public String getParameters() {
+		return parameters;
+	}
+}
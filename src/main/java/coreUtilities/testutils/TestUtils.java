@@ -1,22 +1,19 @@
 package coreUtilities.testutils;
 
-import java.io.BufferedReader;
 import java.io.File;
 import java.io.IOException;
-import java.io.InputStreamReader;
-import java.io.OutputStream;
-import java.net.HttpURLConnection;
-import java.net.MalformedURLException;
-import java.net.URL;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Paths;
-import java.util.HashMap;
-import java.util.Map;
+import java.util.Collections;
 import java.util.stream.Stream;
 
+import org.apache.commons.io.output.StringBuilderWriter;
+
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
 
 // boiler-plate code
 
@@ -30,9 +27,10 @@ public class TestUtils {
 
 	public static String testResult;
 
-	public static int total;
-	public static int passed;
-	public static int failed;
+	// updated through count(), which may be called from several threads at once
+	public static volatile int total;
+	public static volatile int passed;
+	public static volatile int failed;
 
 	public static File businessTestFile;
 	public static File boundaryTestFile;
@@ -42,11 +40,18 @@ public class TestUtils {
 	public static final String GUID = "6ed39465-d6d3-4ec4-b27d-1dcb870b2992";
 	public static String customData;
 	public static final String URL = "https://yaksha-prod-sbfn.azurewebsites.net/api/YakshaMFAEnqueue?code=jSTWTxtQ8kZgQ5FC0oLgoSgZG7UoU9Asnmxgp6hLLvYId/GW9ccoLw==";
-	static {
-		total = 0;
-		passed = 0;
-		failed = 0;
 
+	// ObjectMapper/ObjectWriter are thread-safe once configured; share one
+	private static final ObjectMapper MAPPER = new ObjectMapper();
+	private static final ObjectWriter WRITER = MAPPER.writer();
+	// per-thread serialization buffers, reset before each use
+	private static final ThreadLocal<StringBuilderWriter> INNER_BUFFER = ThreadLocal.withInitial(() -> new StringBuilderWriter(512));
+	private static final ThreadLocal<StringBuilderWriter> OUTER_BUFFER = ThreadLocal.withInitial(() -> new StringBuilderWriter(1024));
+
+	private static final File CUSTOM_DATA_FILE = new File("../custom.ih");
+	private static volatile CachedFile cachedCustomData;
+
+	static {
 		testResult = "";
 
 
@@ -73,72 +78,50 @@ public class TestUtils {
 		return contentBuilder.toString();
 	}
 
-	public static void yakshaAssert(String testName, Object result, File file) throws IOException {
-		TestResults testResults = new TestResults();
-		Map<String, TestCaseResultDto> testCaseResults = new HashMap<String, TestCaseResultDto>();
+	// custom.ih is re-read only when its modification time or size changes
+	private static String readCustomData() {
+		long lastModified = CUSTOM_DATA_FILE.lastModified();
+		long length = CUSTOM_DATA_FILE.length();
+		CachedFile cached = cachedCustomData;
+		if (cached == null || cached.lastModified != lastModified || cached.length != length) {
+			String content = lastModified == 0 && cached != null ? "" : readData(CUSTOM_DATA_FILE.getPath());
+			cached = new CachedFile(lastModified, length, content);
+			cachedCustomData = cached;
+		}
+		return cached.content;
+	}
+
+	private static final class CachedFile {
+		private final long lastModified;
+		private final long length;
+		private final String content;
+
+		private CachedFile(long lastModified, long length, String content) {
+			this.lastModified = lastModified;
+			this.length = length;
+			this.content = content;
+		}
+	}
 
-		customData = readData("../custom.ih");
+	public static void yakshaAssert(String testName, Object result, File file) throws IOException {
+		customData = readCustomData();
 		String resultStatus = "Failed";
 		int resultScore = 0;
 		if (result.toString().equals("true")) {
 			resultScore = 1;
 			resultStatus = "Passed";
 		}
-		try {
-			String testType = "functional";
-			if (file.getName().contains("boundary"))
-				testType = "boundary";
-			if (file.getName().contains("exception"))
-				testType = "exception";
-			testCaseResults.put(GUID,
-					new TestCaseResultDto(testName, testType, 1, resultScore, resultStatus, true, ""));
-		} catch (Exception e) {
-			
-			e.printStackTrace();
-			System.out.println(e.getMessage());
-		}
-		testResults.setTestCaseResults(asJsonString(testCaseResults));
-		testResults.setCustomData(customData);
-
-		
-try {
-
-	URL url = new URL(URL);
-	HttpURLConnection conn = (HttpURLConnection) url.openConnection();
-	conn.setDoOutput(true);
-	conn.setRequestMethod("POST");
-	conn.setRequestProperty("Content-Type", "application/json");
-
-//	String input = "{\"qty\":100,\"name\":\"iPad 4\"}";
-	String input = asJsonString(testResults);
-	OutputStream os = conn.getOutputStream();
-	os.write(input.getBytes());
-	os.flush();
-
-	
-	BufferedReader br = new BufferedReader(new InputStreamReader(
-			(conn.getInputStream())));
-
-	String output;
-	while ((output = br.readLine()) != null) {
-		System.out.println(output);
-	}
-
-	conn.disconnect();
-
-  } catch (MalformedURLException e) {
-
-	e.printStackTrace();
+		String testType = "functional";
+		if (file.getName().contains("boundary"))
+			testType = "boundary";
+		if (file.getName().contains("exception"))
+			testType = "exception";
+		TestCaseResultDto testCaseResult = new TestCaseResultDto(testName, testType, 1, resultScore, resultStatus, true,
+				"");
 
-  } catch (IOException e) {
+		// published from a background thread; see ResultPublisher
+		ResultPublisher.publish(resultPayload(testCaseResult, customData));
 
-	e.printStackTrace();
-
- }	
-
-
-		total++;
-		String[] r = testName.split("(?=\\p{Upper})");
 		System.out.print("\n" + BLUE_BOLD_BRIGHT + "=>");
 		
 
@@ -153,13 +136,33 @@ try {
 		
 		if (result.toString().equals("true")) {
 			System.out.println(GREEN_BOLD_BRIGHT + "PASSED" + TEXT_RESET);
-			passed++;
 		} else {
 			System.out.println(RED_BOLD_BRIGHT + "FAILED" + TEXT_RESET);
+		}
+		count(result.toString().equals("true"));
+	}
+
+	private static synchronized void count(boolean pass) {
+		total++;
+		if (pass) {
+			passed++;
+		} else {
 			failed++;
 		}
 	}
 
+	public static int getTotal() {
+		return total;
+	}
+
+	public static int getPassed() {
+		return passed;
+	}
+
+	public static int getFailed() {
+		return failed;
+	}
+
 	public static void testReport() {
 
 		 System.out.print("\n" + BLUE_BOLD_BRIGHT + "TEST CASES EVALUATED : " + total
@@ -176,10 +179,9 @@ try {
 
 	// convert object into JSON
 	public static String asJsonString(Object obj) {
-		ObjectMapper mapper = new ObjectMapper();
 		String jsonString = "";
 		try {
-			jsonString = mapper.writeValueAsString(obj);
+			jsonString = WRITER.writeValueAsString(obj);
 		} catch (JsonProcessingException e) {
 			
 			e.printStackTrace();
@@ -188,5 +190,31 @@ try {
 
 	}
 
-}
+	/**
+	 * Serializes a result into the body expected by the results endpoint, the
+	 * same JSON that {@link TestResults} produces: {"testCaseResults": "{GUID:
+	 * dto}", "customData": "..."}. Both levels are written straight into
+	 * per-thread buffers instead of building intermediate maps and objects.
+	 */
+	public static String resultPayload(TestCaseResultDto testCaseResult, String customData) {
+		try {
+			StringBuilderWriter inner = INNER_BUFFER.get();
+			inner.getBuilder().setLength(0);
+			WRITER.writeValue(inner, Collections.singletonMap(GUID, testCaseResult));
+
+			StringBuilderWriter outer = OUTER_BUFFER.get();
+			outer.getBuilder().setLength(0);
+			try (JsonGenerator generator = MAPPER.getFactory().createGenerator(outer)) {
+				generator.writeStartObject();
+				generator.writeStringField("testCaseResults", inner.toString());
+				generator.writeStringField("customData", customData);
+				generator.writeEndObject();
+			}
+			return outer.toString();
+		} catch (IOException e) {
+			e.printStackTrace();
+			return "";
+		}
+	}
 
+}
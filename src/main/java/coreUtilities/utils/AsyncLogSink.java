@@ -0,0 +1,176 @@
+package coreUtilities.utils;
+
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import io.restassured.response.Response;
+import restConfig.ConfigManager;
+
+/**
+ * Console sink that keeps console I/O off the test threads. Messages are put
+ * on a bounded queue and written by a single daemon thread; when the queue is
+ * full the message is dropped and counted instead of blocking the caller.
+ * Response bodies are truncated and sampled, and everything logged between
+ * {@link #beginTest(String)} and {@link #endTest()} is buffered per thread and
+ * written as one block so parallel tests do not interleave.
+ */
+public class AsyncLogSink {
+
+	private static final int QUEUE_CAPACITY = ConfigManager.getInt("log.queue.capacity", 4096);
+	private static final int MAX_BATCH = 256;
+
+	private static final BlockingQueue<String> queue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+	private static final ThreadLocal<StringBuilder> testBuffer = new ThreadLocal<>();
+	private static final AtomicLong pending = new AtomicLong();
+	private static final AtomicLong responseCounter = new AtomicLong();
+	private static final LongAdder dropped = new LongAdder();
+	private static final PrintStream out = System.out;
+
+	static {
+		Thread writer = new Thread(AsyncLogSink::drain, "async-log-sink");
+		writer.setDaemon(true);
+		writer.start();
+		Runtime.getRuntime().addShutdownHook(new Thread(() -> flush(2000), "async-log-sink-flush"));
+	}
+
+	/**
+	 * Logs a single line. If the current thread is inside a test the line is
+	 * buffered until {@link #endTest()}, otherwise it is queued for the writer.
+	 *
+	 * @param message - {@link String}
+	 */
+	public static void log(String message) {
+		StringBuilder buffer = testBuffer.get();
+		if (buffer != null) {
+			buffer.append(message).append(System.lineSeparator());
+		} else {
+			enqueue(message);
+		}
+	}
+
+	/**
+	 * Logs a response under the given title. Only one in every
+	 * {@code log.body.sample.rate} bodies is written; the others are reduced to
+	 * a one-line summary. Bodies longer than {@code log.body.max.chars} are cut.
+	 *
+	 * @param title    - {@link String} heading printed before the body
+	 * @param response - {@link Response}
+	 */
+	public static void logResponse(String title, Response response) {
+		if (response == null) {
+			log(title + " <no response>");
+			return;
+		}
+		int sampleRate = Math.max(1, ConfigManager.getInt("log.body.sample.rate", 1));
+		if (responseCounter.getAndIncrement() % sampleRate != 0) {
+			log(title + " [status " + response.getStatusCode() + ", body not sampled]");
+			return;
+		}
+		log(title);
+		log(truncate(response.asString()));
+	}
+
+	/**
+	 * Starts buffering the current thread's output for the named test.
+	 *
+	 * @param testName - {@link String}
+	 */
+	public static void beginTest(String testName) {
+		StringBuilder buffer = new StringBuilder(256);
+		buffer.append("----- ").append(testName).append(" -----").append(System.lineSeparator());
+		testBuffer.set(buffer);
+	}
+
+	/**
+	 * Hands the current thread's buffered output to the writer as one block.
+	 */
+	public static void endTest() {
+		StringBuilder buffer = testBuffer.get();
+		testBuffer.remove();
+		if (buffer != null && buffer.length() > 0) {
+			enqueue(buffer.toString());
+		}
+	}
+
+	/**
+	 * Waits until everything queued so far has been written, or the timeout
+	 * elapses.
+	 *
+	 * @param timeoutMillis - maximum time to wait
+	 */
+	public static void flush(long timeoutMillis) {
+		long deadline = System.currentTimeMillis() + timeoutMillis;
+		while (pending.get() > 0 && System.currentTimeMillis() < deadline) {
+			try {
+				Thread.sleep(5);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				return;
+			}
+		}
+	}
+
+	/**
+	 * @return number of messages dropped because the queue was full
+	 */
+	public static long getDroppedCount() {
+		return dropped.sum();
+	}
+
+	private static void enqueue(String message) {
+		pending.incrementAndGet();
+		if (!queue.offer(message)) {
+			pending.decrementAndGet();
+			dropped.increment();
+		}
+	}
+
+	private static String truncate(String body) {
+		int maxChars = ConfigManager.getInt("log.body.max.chars", 2000);
+		if (body == null || body.length() <= maxChars) {
+			return body;
+		}
+		return body.substring(0, maxChars) + "... [truncated " + (body.length() - maxChars) + " chars]";
+	}
+
+	private static void drain() {
+		List<String> batch = new ArrayList<>(MAX_BATCH);
+		long reportedDrops = 0;
+		while (true) {
+			try {
+				String first = queue.poll(1, TimeUnit.SECONDS);
+				if (first == null) {
+					continue;
+				}
+				batch.add(first);
+				queue.drainTo(batch, MAX_BATCH - 1);
+
+				StringBuilder chunk = new StringBuilder();
+				for (String message : batch) {
+					chunk.append(message);
+					if (!message.endsWith(System.lineSeparator())) {
+						chunk.append(System.lineSeparator());
+					}
+				}
+				long drops = dropped.sum();
+				if (drops != reportedDrops) {
+					chunk.append("[async-log-sink] ").append(drops - reportedDrops)
+							.append(" messages dropped, queue full").append(System.lineSeparator());
+					reportedDrops = drops;
+				}
+				out.print(chunk);
+				out.flush();
+				pending.addAndGet(-batch.size());
+				batch.clear();
+			} catch (InterruptedException e) {
+				return;
+			}
+		}
+	}
+}
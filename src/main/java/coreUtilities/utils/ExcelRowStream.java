@@ -0,0 +1,210 @@
+package coreUtilities.utils;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.ss.usermodel.DataFormatter;
+import org.apache.poi.ss.util.CellReference;
+import org.apache.poi.util.XMLHelper;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.apache.poi.xssf.eventusermodel.XSSFSheetXMLHandler;
+import org.apache.poi.xssf.eventusermodel.XSSFSheetXMLHandler.SheetContentsHandler;
+import org.apache.poi.xssf.model.StylesTable;
+import org.apache.poi.xssf.usermodel.XSSFComment;
+import org.xml.sax.InputSource;
+import org.xml.sax.XMLReader;
+
+import restConfig.ConfigManager;
+
+/**
+ * Reads the rows of one .xlsx sheet through POI's SAX event model, without
+ * building the workbook in memory.
+ * <p>
+ * The first row is the header; every later row is returned as a map of header
+ * to the cell's formatted value, in column order. A background thread parses
+ * the sheet and hands rows over a queue bounded by
+ * {@code excel.stream.buffer.rows}, so memory stays flat however long the
+ * sheet is and the first row is available as soon as it has been parsed.
+ * Close the stream when done, also when not reading to the end.
+ */
+public class ExcelRowStream implements Iterator<Map<String, String>>, AutoCloseable {
+
+	private static final Object END = new Object();
+
+	private final OPCPackage pkg;
+	private final BlockingQueue<Object> rows;
+	private final Thread parser;
+	private volatile boolean closed;
+	private Object next;
+
+	/**
+	 * Opens the sheet and starts parsing it.
+	 *
+	 * @param excelFilePath - {@link String} .xlsx location
+	 * @param sheetName     - {@link String} sheet to read
+	 * @throws IOException              if the workbook cannot be opened
+	 * @throws IllegalArgumentException if the workbook has no such sheet
+	 */
+	public ExcelRowStream(String excelFilePath, final String sheetName) throws IOException {
+		rows = new ArrayBlockingQueue<>(Math.max(1, ConfigManager.getInt("excel.stream.buffer.rows", 1024)));
+		try {
+			pkg = OPCPackage.open(new File(excelFilePath), PackageAccess.READ);
+		} catch (Exception e) {
+			throw new IOException("Cannot open " + excelFilePath, e);
+		}
+		final InputStream sheet;
+		final XSSFSheetXMLHandler handler;
+		try {
+			XSSFReader reader = new XSSFReader(pkg);
+			StylesTable styles = reader.getStylesTable();
+			ReadOnlySharedStringsTable strings = new ReadOnlySharedStringsTable(pkg, false);
+			sheet = findSheet(reader, sheetName);
+			handler = new XSSFSheetXMLHandler(styles, strings, new RowCollector(), new DataFormatter(), false);
+		} catch (IOException | RuntimeException e) {
+			pkg.revert();
+			throw e;
+		} catch (Exception e) {
+			pkg.revert();
+			throw new IOException("Cannot read " + excelFilePath, e);
+		}
+
+		parser = new Thread(() -> parse(handler, sheet), "excel-stream-" + sheetName);
+		parser.setDaemon(true);
+		parser.start();
+	}
+
+	@Override
+	public boolean hasNext() {
+		if (next == null) {
+			try {
+				next = rows.take();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new IllegalStateException("Interrupted while reading sheet", e);
+			}
+		}
+		if (next instanceof RuntimeException) {
+			RuntimeException failure = (RuntimeException) next;
+			next = END;
+			throw failure;
+		}
+		return next != END;
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	public Map<String, String> next() {
+		if (!hasNext()) {
+			throw new NoSuchElementException();
+		}
+		Map<String, String> row = (Map<String, String>) next;
+		next = null;
+		return row;
+	}
+
+	/**
+	 * Stops the parser and releases the file.
+	 */
+	@Override
+	public void close() {
+		closed = true;
+		parser.interrupt();
+		rows.clear();
+		pkg.revert();
+	}
+
+	private static InputStream findSheet(XSSFReader reader, String sheetName) throws Exception {
+		XSSFReader.SheetIterator sheets = (XSSFReader.SheetIterator) reader.getSheetsData();
+		while (sheets.hasNext()) {
+			InputStream sheet = sheets.next();
+			if (sheets.getSheetName().equals(sheetName)) {
+				return sheet;
+			}
+			sheet.close();
+		}
+		throw new IllegalArgumentException("Sheet " + sheetName + " not found");
+	}
+
+	private void parse(XSSFSheetXMLHandler handler, InputStream sheet) {
+		try (InputStream in = sheet) {
+			XMLReader xmlReader = XMLHelper.newXMLReader();
+			xmlReader.setContentHandler(handler);
+			xmlReader.parse(new InputSource(in));
+			offer(END);
+		} catch (StopParsing e) {
+			// closed by the reader
+		} catch (Exception e) {
+			try {
+				offer(new IllegalStateException("Failed to parse sheet", e));
+			} catch (StopParsing closed) {
+				// nobody is reading any more
+			}
+		}
+	}
+
+	private void offer(Object item) {
+		try {
+			while (!closed) {
+				if (rows.offer(item, 100, TimeUnit.MILLISECONDS)) {
+					return;
+				}
+			}
+		} catch (InterruptedException e) {
+			// closed
+		}
+		throw new StopParsing();
+	}
+
+	private final class RowCollector implements SheetContentsHandler {
+		private List<String> header;
+		private List<String> cells = new ArrayList<>();
+
+		@Override
+		public void startRow(int rowNum) {
+			cells = new ArrayList<>();
+		}
+
+		@Override
+		public void cell(String cellReference, String formattedValue, XSSFComment comment) {
+			int column = cellReference == null ? cells.size() : new CellReference(cellReference).getCol();
+			while (cells.size() < column) {
+				cells.add("");
+			}
+			cells.add(formattedValue == null ? "" : formattedValue);
+		}
+
+		@Override
+		public void endRow(int rowNum) {
+			if (cells.isEmpty()) {
+				return;
+			}
+			if (header == null) {
+				header = Collections.unmodifiableList(cells);
+				return;
+			}
+			Map<String, String> row = new LinkedHashMap<>();
+			for (int i = 0; i < header.size(); i++) {
+				row.put(header.get(i), i < cells.size() ? cells.get(i) : "");
+			}
+			offer(Collections.unmodifiableMap(row));
+		}
+	}
+
+	private static final class StopParsing extends RuntimeException {
+		private static final long serialVersionUID = 1L;
+	}
+}
@@ -0,0 +1,127 @@
+package coreUtilities.utils;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellType;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.ss.usermodel.WorkbookFactory;
+
+/**
+ * Parsed key/value sheets of Excel workbooks, so a workbook is opened through
+ * POI once instead of on every lookup.
+ * <p>
+ * A workbook is cached under its canonical path together with the file's
+ * modification time and length; when either changes the workbook is parsed
+ * again on the next lookup. Parsing reads every sheet into an immutable map of
+ * first-column key to second-column value, converted the same way
+ * {@link FileOperations#readExcelPOI(String, String)} always has, and the POI
+ * workbook is closed right away.
+ */
+public class ExcelWorkbookCache {
+
+	private static final Map<String, CachedWorkbook> cache = new ConcurrentHashMap<>();
+
+	/**
+	 * @param excelFilePath - {@link String} excel sheet location
+	 * @param sheetName     - {@link String} Sheet name to read
+	 * @return immutable key/value map of the sheet
+	 * @throws IOException              if the workbook cannot be read
+	 * @throws IllegalArgumentException if the workbook has no such sheet
+	 */
+	public static Map<String, String> getSheet(String excelFilePath, String sheetName) throws IOException {
+		Map<String, String> sheet = getWorkbook(excelFilePath).get(sheetName);
+		if (sheet == null) {
+			throw new IllegalArgumentException("Sheet " + sheetName + " not found in " + excelFilePath);
+		}
+		return sheet;
+	}
+
+	/**
+	 * @param excelFilePath - {@link String} excel sheet location
+	 * @return immutable map of sheet name to its key/value map, in workbook order
+	 * @throws IOException if the workbook cannot be read
+	 */
+	public static Map<String, Map<String, String>> getWorkbook(String excelFilePath) throws IOException {
+		final File file = new File(excelFilePath).getCanonicalFile();
+		try {
+			return cache.compute(file.getPath(), (path, cached) -> {
+				if (cached != null && cached.isCurrent(file)) {
+					return cached;
+				}
+				try {
+					return load(file);
+				} catch (IOException e) {
+					throw new UncheckedIOException(e);
+				}
+			}).sheets;
+		} catch (UncheckedIOException e) {
+			throw e.getCause();
+		}
+	}
+
+	/**
+	 * Drops all cached workbooks.
+	 */
+	public static void clear() {
+		cache.clear();
+	}
+
+	private static CachedWorkbook load(File file) throws IOException {
+		long lastModified = file.lastModified();
+		long length = file.length();
+		Map<String, Map<String, String>> sheets = new LinkedHashMap<>();
+		try (FileInputStream fileInputStream = new FileInputStream(file);
+				Workbook workbook = WorkbookFactory.create(fileInputStream)) {
+			for (Sheet sheet : workbook) {
+				sheets.put(sheet.getSheetName(), Collections.unmodifiableMap(readKeyValues(sheet)));
+			}
+		}
+		return new CachedWorkbook(lastModified, length, Collections.unmodifiableMap(sheets));
+	}
+
+	// first column is the key, second column the value
+	private static Map<String, String> readKeyValues(Sheet sheet) {
+		Map<String, String> dataMap = new HashMap<>();
+		for (Row row : sheet) {
+			Cell keyCell = row.getCell(0);
+			Cell valueCell = row.getCell(1);
+			if (keyCell != null && valueCell != null) {
+				if (keyCell.getCellType() != CellType.STRING) {
+					keyCell.setCellType(CellType.STRING);
+				}
+				if (valueCell.getCellType() != CellType.STRING) {
+					valueCell.setCellType(CellType.STRING);
+				}
+				dataMap.put(keyCell.getStringCellValue(), valueCell.getStringCellValue());
+			}
+		}
+		return dataMap;
+	}
+
+	private static final class CachedWorkbook {
+		private final long lastModified;
+		private final long length;
+		private final Map<String, Map<String, String>> sheets;
+
+		private CachedWorkbook(long lastModified, long length, Map<String, Map<String, String>> sheets) {
+			this.lastModified = lastModified;
+			this.length = length;
+			this.sheets = sheets;
+		}
+
+		private boolean isCurrent(File file) {
+			return file.lastModified() == lastModified && file.length() == length;
+		}
+	}
+}
@@ -1,6 +1,9 @@
 package coreUtilities.utils;
 
 import java.io.File;
+import java.time.Duration;
+import java.util.IdentityHashMap;
+import java.util.Map;
 
 import org.openqa.selenium.Platform;
 
@@ -10,9 +13,28 @@ import com.aventstack.extentreports.reporter.ExtentHtmlReporter;
 import com.aventstack.extentreports.reporter.configuration.ChartLocation;
 import com.aventstack.extentreports.reporter.configuration.Theme;
 
+import restConfig.ConfigManager;
+
+/**
+ * Builds the Extent report. Besides the single-instance methods, it can write
+ * the report incrementally with bounded memory: {@link #startTest} and
+ * {@link #endTest} track open tests, the report is flushed every
+ * {@code report.flush.interval} by {@link #flushIfDue()}, and after
+ * {@code report.segment.size} finished tests the current report is written out
+ * and a new part file (...-part2.html, ...) is started, so finished test nodes
+ * are released from the heap. Tests still open in an old part are flushed into
+ * it when they end. The incremental methods are not thread-safe; call them
+ * from a single reporter thread.
+ */
 public class ExtentReportManager 
 {
 	private static ExtentReports extent;
+    private static int segment = 1;
+    private static int finishedInSegment;
+    private static boolean dirty;
+    private static long lastFlush = System.currentTimeMillis();
+    // open test -> the report (current or retired part) it was created in
+    private static final Map<ExtentTest, ExtentReports> openTests = new IdentityHashMap<>();
     private static Platform platform;
     private static String reportFileName = "ExtentReports-Version3-Test-Automaton-Report.html";
     private static String macPath = System.getProperty("user.dir")+ "/TestReport";
@@ -31,6 +53,68 @@ public class ExtentReportManager
     public static ExtentReports createInstance() {
         platform = getCurrentPlatform();
         String fileName = getReportFileLocation(platform);
+        segment = 1;
+        finishedInSegment = 0;
+        extent = createReport(fileName);
+        return extent;
+    }
+ 
+    //Create a test node in the current report part
+    public static ExtentTest startTest(String name, String description) {
+        ExtentTest test = getInstance().createTest(name, description);
+        openTests.put(test, extent);
+        return test;
+    }
+ 
+    //Mark a test node as finished; rotates to a new report part when the current one is full
+    public static void endTest(ExtentTest test) {
+        ExtentReports owner = openTests.remove(test);
+        if (owner != null && owner != extent) {
+            // last open test of a retired part: write it out so the part can be released
+            if (!openTests.containsValue(owner)) {
+                owner.flush();
+            }
+            return;
+        }
+        dirty = true;
+        finishedInSegment++;
+        if (finishedInSegment >= ConfigManager.getInt("report.segment.size", 500)) {
+            rotate();
+        }
+    }
+ 
+    //Flush the current report part if report.flush.interval has passed since the last flush
+    public static void flushIfDue() {
+        long interval = ConfigManager.getDuration("report.flush.interval", Duration.ofSeconds(30)).toMillis();
+        if (dirty && System.currentTimeMillis() - lastFlush >= interval) {
+            flush();
+        }
+    }
+ 
+    //Flush the current report part and any retired part that still has open tests
+    public static void flush() {
+        for (ExtentReports owner : new IdentityHashMap<>(openTests).values()) {
+            if (owner != extent) {
+                owner.flush();
+            }
+        }
+        getInstance().flush();
+        dirty = false;
+        lastFlush = System.currentTimeMillis();
+    }
+ 
+    private static void rotate() {
+        ExtentReports finished = extent;
+        finished.flush();
+        segment++;
+        finishedInSegment = 0;
+        String fileName = getReportFileLocation(platform);
+        extent = createReport(fileName.replace(".html", "-part" + segment + ".html"));
+        dirty = false;
+        lastFlush = System.currentTimeMillis();
+    }
+ 
+    private static ExtentReports createReport(String fileName) {
         ExtentHtmlReporter htmlReporter = new ExtentHtmlReporter(fileName);
         htmlReporter.config().setTestViewChartLocation(ChartLocation.BOTTOM);
         htmlReporter.config().setChartVisibilityOnOpen(true);
@@ -39,10 +123,10 @@ public class ExtentReportManager
         htmlReporter.config().setEncoding("utf-8");
         htmlReporter.config().setReportName(fileName);
  
-        extent = new ExtentReports();
-        extent.attachReporter(htmlReporter);
+        ExtentReports report = new ExtentReports();
+        report.attachReporter(htmlReporter);
  
-        return extent;
+        return report;
     }
  
     //Select the extent report file location based on platform
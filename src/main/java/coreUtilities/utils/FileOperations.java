@@ -1,46 +1,37 @@
 package coreUtilities.utils;
 
-import java.io.File;
-import java.io.FileInputStream;
 import java.io.IOException;
-import java.util.HashMap;
 import java.util.Map;
 import java.util.Properties;
 
-import org.apache.poi.ss.usermodel.Cell;
-import org.apache.poi.ss.usermodel.CellType;
-import org.apache.poi.ss.usermodel.Row;
-import org.apache.poi.ss.usermodel.Sheet;
-import org.apache.poi.ss.usermodel.Workbook;
-import org.apache.poi.ss.usermodel.WorkbookFactory;
 import org.json.simple.JSONObject;
 import org.json.simple.parser.JSONParser;
 
 import com.codoid.products.fillo.Connection;
 import com.codoid.products.fillo.Fillo;
-import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.ObjectMapper;
 
 public class FileOperations {
 	public JSONParser jsonParser;
 	public JSONObject jsonObject;
+	// not used by the framework; sheets are read through ExcelWorkbookCache
 	public Fillo fillo;
 	public Connection connection;
 	public Properties properties;
 
 	/**
 	 * This method is useful to read the json file based on the Filename
-	 * It'll return the json object as {@link Map}
+	 * It'll return the json object as {@link Map}. The file is parsed once and
+	 * served from {@link JsonDataLoader} until it changes, so the returned map is
+	 * read-only.
 	 * 
 	 * @param jsonFilePath - {@link String}
 	 * @return {@link Map}
 	 * @throws Exception
 	 */
 	public Map<String, String> readJson(String jsonFilePath) {
-        ObjectMapper objectMapper = new ObjectMapper();
         try {
-            // Read the JSON file and convert it to a Map<String, String>
-            return objectMapper.readValue(new File(jsonFilePath), new TypeReference<Map<String, String>>() {});
+            // Parsed once per file version and shared between callers
+            return JsonDataLoader.getMap(jsonFilePath);
         } catch (IOException e) {
             e.printStackTrace();
             throw new RuntimeException("Failed to read JSON file: " + jsonFilePath, e);
@@ -51,7 +42,9 @@ public class FileOperations {
 	 * This method is useful to read the excel sheet based on the Filename and sheet
 	 * name. It'll return the values for the respective sheet in {@link Map} where
 	 * the first column name as a key and the value as per the value entered in
-	 * second column.
+	 * second column. The workbook is parsed once and served from
+	 * {@link ExcelWorkbookCache} until the file changes, so the returned map is
+	 * read-only.
 	 * 
 	 * @param excelFilePath - {@link String} excel sheet location
 	 * @param sheetName     - {@link String} Sheet name to read the excel
@@ -59,45 +52,24 @@ public class FileOperations {
 	 * @throws Exception
 	 */
 	public Map<String, String> readExcelPOI(String excelFilePath, String sheetName) throws Exception {
-		// Create a Map to store key-value pairs from the Excel file
-		Map<String, String> dataMap = new HashMap<>();
-
-		// Create a FileInputStream object to read the Excel file
-		FileInputStream fileInputStream = new FileInputStream(new File(excelFilePath));
-
-		// Create a Workbook object using the WorkbookFactory
-		Workbook workbook = WorkbookFactory.create(fileInputStream);
-
-		// Get the sheet from the workbook
-		Sheet sheet = workbook.getSheet(sheetName);
-
-		// Iterate through each row in the sheet
-		for (Row row : sheet) {
-			// Assuming the first column contains the key and the second column contains the
-			// value
-			Cell keyCell = row.getCell(0);
-			Cell valueCell = row.getCell(1);
-
-			if (keyCell != null && valueCell != null) {
-				// Convert the cell type to STRING if it is not already STRING
-				if (keyCell.getCellType() != CellType.STRING) {
-					keyCell.setCellType(CellType.STRING);
-				}
-				if (valueCell.getCellType() != CellType.STRING) {
-					valueCell.setCellType(CellType.STRING);
-				}
-
-				// Store the key-value pair in the Map
-				dataMap.put(keyCell.getStringCellValue(), valueCell.getStringCellValue());
-			}
-		}
-
-		// Close the workbook and file stream
-		workbook.close();
-		fileInputStream.close();
+		// Parsed once per file version and shared between callers
+		return ExcelWorkbookCache.getSheet(excelFilePath, sheetName);
+	}
 
-		// Return the data map
-		return dataMap;
+	/**
+	 * This method is useful to read large data-driven sheets row by row. The
+	 * sheet is parsed through POI's streaming event model, so the workbook is
+	 * never held in memory; the first row is the header and every later row is
+	 * returned as a {@link Map} of header to cell value. Close the returned
+	 * stream when done.
+	 * 
+	 * @param excelFilePath - {@link String} .xlsx location
+	 * @param sheetName     - {@link String} Sheet name to read
+	 * @return {@link ExcelRowStream}
+	 * @throws IOException
+	 */
+	public ExcelRowStream streamExcelRows(String excelFilePath, String sheetName) throws IOException {
+		return new ExcelRowStream(excelFilePath, sheetName);
 	}
 
 }
\ No newline at end of file
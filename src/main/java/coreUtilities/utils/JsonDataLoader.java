@@ -0,0 +1,86 @@
+package coreUtilities.utils;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+
+/**
+ * Parsed JSON test data files, so a file is read and parsed once instead of on
+ * every lookup.
+ * <p>
+ * All files are parsed by one shared, thread-safe reader. A document is cached
+ * under its canonical path together with the file's modification time and
+ * length; when either changes the file is parsed again on the next lookup.
+ * The reader streams the file, so a large file is never copied onto the heap
+ * whole, and the file is closed as soon as it is parsed.
+ */
+public class JsonDataLoader {
+
+	private static final ObjectMapper mapper = new ObjectMapper();
+	private static final ObjectReader mapReader = mapper
+			.readerFor(new TypeReference<LinkedHashMap<String, String>>() {
+			});
+	private static final Map<String, CachedDocument> cache = new ConcurrentHashMap<>();
+
+	/**
+	 * @param jsonFilePath - {@link String} location of a JSON object whose values
+	 *                     are text or scalars
+	 * @return immutable map of the object's fields, in file order
+	 * @throws IOException if the file cannot be read or is not such an object
+	 */
+	public static Map<String, String> getMap(String jsonFilePath) throws IOException {
+		final File file = new File(jsonFilePath).getCanonicalFile();
+		try {
+			return cache.compute(file.getPath(), (path, cached) -> {
+				if (cached != null && cached.isCurrent(file)) {
+					return cached;
+				}
+				try {
+					return load(file);
+				} catch (IOException e) {
+					throw new UncheckedIOException(e);
+				}
+			}).values;
+		} catch (UncheckedIOException e) {
+			throw e.getCause();
+		}
+	}
+
+	/**
+	 * Drops all cached documents.
+	 */
+	public static void clear() {
+		cache.clear();
+	}
+
+	private static CachedDocument load(File file) throws IOException {
+		long lastModified = file.lastModified();
+		long length = file.length();
+		Map<String, String> values = mapReader.readValue(file);
+		return new CachedDocument(lastModified, length, Collections.unmodifiableMap(values));
+	}
+
+	private static final class CachedDocument {
+		private final long lastModified;
+		private final long length;
+		private final Map<String, String> values;
+
+		private CachedDocument(long lastModified, long length, Map<String, String> values) {
+			this.lastModified = lastModified;
+			this.length = length;
+			this.values = values;
+		}
+
+		private boolean isCurrent(File file) {
+			return file.lastModified() == lastModified && file.length() == length;
+		}
+	}
+}
@@ -8,12 +8,18 @@ import java.io.File;
 
 import java.lang.reflect.Method;
 
+import java.util.function.Supplier;
+
  
 
 import org.apache.logging.log4j.LogManager;
 
 import org.apache.logging.log4j.Logger;
 
+import org.apache.logging.log4j.Marker;
+
+import org.apache.logging.log4j.MarkerManager;
+
 import org.apache.logging.log4j.core.LoggerContext;
 
 import org.testng.ITestContext;
@@ -28,6 +34,20 @@ public class Log {
 
  
 
+    // rendered as the "> INFO: " style prefix by the layout in log4j2.xml, so formats are passed through as is
+
+    private static final Marker INFO = MarkerManager.getMarker("INFO");
+
+    private static final Marker WARN = MarkerManager.getMarker("WARN");
+
+    private static final Marker ERROR = MarkerManager.getMarker("ERROR");
+
+    private static final Marker FATAL = MarkerManager.getMarker("FATAL");
+
+    private static final Marker DEBUG = MarkerManager.getMarker("DEBUG");
+
+ 
+
     public static void logInitialize() {
 
         LoggerContext context = (LoggerContext) LogManager.getContext(false);
@@ -48,7 +68,7 @@ public class Log {
 
         logger.info("-------------------------------------------------------------------------------");
 
-        logger.info(" TEST SUITE : " + testContext.getCurrentXmlTest().getSuite().getName());
+        logger.info(" TEST SUITE : {}", testContext.getCurrentXmlTest().getSuite().getName());
 
         logger.info("-------------------------------------------------------------------------------");
 
@@ -72,7 +92,7 @@ public class Log {
 
         logger.info("------------------------------------------------");
 
-        logger.info(" TEST CASE : " + method.getName());
+        logger.info(" TEST CASE : {}", method.getName());
 
         logger.info("------------------------------------------------");
 
@@ -92,7 +112,31 @@ public class Log {
 
     public static void info(String message) {
 
-        logger.info("> INFO: " + message);
+        logger.info(INFO, "{}", message);
+
+    }
+
+ 
+
+    public static void info(String format, Object... params) {
+
+        if (logger.isInfoEnabled()) {
+
+            logger.info(INFO, format, params);
+
+        }
+
+    }
+
+ 
+
+    public static void info(Supplier<String> message) {
+
+        if (logger.isInfoEnabled()) {
+
+            logger.info(INFO, "{}", message.get());
+
+        }
 
     }
 
@@ -100,7 +144,19 @@ public class Log {
 
     public static void warn(String message) {
 
-        logger.warn("> WARN: " + message);
+        logger.warn(WARN, "{}", message);
+
+    }
+
+ 
+
+    public static void warn(String format, Object... params) {
+
+        if (logger.isWarnEnabled()) {
+
+            logger.warn(WARN, format, params);
+
+        }
 
     }
 
@@ -108,7 +164,15 @@ public class Log {
 
     public static void error(String message) {
 
-        logger.error("> ERROR: " + message);
+        logger.error(ERROR, "{}", message);
+
+    }
+
+ 
+
+    public static void error(String message, Throwable throwable) {
+
+        logger.error(ERROR, "{}", message, throwable);
 
     }
 
@@ -116,7 +180,7 @@ public class Log {
 
     public static void fatal(String message) {
 
-        logger.fatal("> FATAL: " + message);
+        logger.fatal(FATAL, "{}", message);
 
     }
 
@@ -124,7 +188,31 @@ public class Log {
 
     public static void debug(String message) {
 
-        logger.debug("> DEBUG: " + message);
+        logger.debug(DEBUG, "{}", message);
+
+    }
+
+ 
+
+    public static void debug(String format, Object... params) {
+
+        if (logger.isDebugEnabled()) {
+
+            logger.debug(DEBUG, format, params);
+
+        }
+
+    }
+
+ 
+
+    public static void debug(Supplier<String> message) {
+
+        if (logger.isDebugEnabled()) {
+
+            logger.debug(DEBUG, "{}", message.get());
+
+        }
 
     }
 
@@ -132,7 +220,19 @@ public class Log {
 
     public static void expected(String message) {
 
-        logger.info("> EXPECTED RESULT : " + message);
+        logger.info("> EXPECTED RESULT : {}", message);
+
+    }
+
+ 
+
+    public static void expected(Supplier<String> message) {
+
+        if (logger.isInfoEnabled()) {
+
+            logger.info("> EXPECTED RESULT : {}", message.get());
+
+        }
 
     }
 
@@ -140,10 +240,22 @@ public class Log {
 
     public static void actual(String message) {
 
-        logger.info("> ACTUAL RESULT : " + message);
+        logger.info("> ACTUAL RESULT : {}", message);
+
+    }
+
+ 
+
+    public static void actual(Supplier<String> message) {
+
+        if (logger.isInfoEnabled()) {
+
+            logger.info("> ACTUAL RESULT : {}", message.get());
+
+        }
 
     }
 
  
 
-}
+}
\ No newline at end of file
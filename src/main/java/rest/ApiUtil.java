@@ -3,6 +3,7 @@ package rest;
 import java.util.List;
 import java.util.Map;
 
+import coreUtilities.utils.AsyncLogSink;
 import io.restassured.RestAssured;
 import io.restassured.response.Response;
 import io.restassured.specification.RequestSpecification;
@@ -24,7 +25,7 @@ public class ApiUtil {
 	 *         appointment.
 	 */
 	public CustomResponse createAppointmentWithAuth(String endpoint, String requestBody) {
-		Response response = RestAssured.given().header("Authorization", AuthUtil.getAuthHeader())
+		Response response = RestAssured.given().header("Authorization", AuthUtil.acquire().getAuthHeader())
 				.header("Content-Type", "application/json").body(requestBody).post(BASE_URL + endpoint).then().extract()
 				.response();
 
@@ -33,6 +34,9 @@ public class ApiUtil {
 		String status = response.jsonPath().getString("Status");
 		Integer appointmentId = response.jsonPath().getInt("Results.AppointmentId");
 
+		// Cancelled together at suite end
+		CreatedEntityTracker.trackAppointment(appointmentId);
+
 		// Creating and returning the CustomResponse object
 		return new CustomResponse(response, statusCode, status, appointmentId);
 	}
@@ -52,7 +56,7 @@ public class ApiUtil {
 	 *         appointment.
 	 */
 	public CustomResponse getAllApplicableDoctorsWithAuth(String endpoint, Object body) {
-		RequestSpecification request = RestAssured.given().header("Authorization", AuthUtil.getAuthHeader())
+		RequestSpecification request = RestAssured.given().header("Authorization", AuthUtil.acquire().getAuthHeader())
 				.header("Content-Type", "application/json");
 
 		// Only add the body if it's not null
@@ -86,7 +90,7 @@ public class ApiUtil {
 	 *         the appointment.
 	 */
 	public CustomResponse cancelAppointmentWithAuth(String endpoint, Object body) {
-		RequestSpecification request = RestAssured.given().header("Authorization", AuthUtil.getAuthHeader())
+		RequestSpecification request = RestAssured.given().header("Authorization", AuthUtil.acquire().getAuthHeader())
 				.header("Content-Type", "application/json");
 
 		// Only add the body if it's not null
@@ -117,7 +121,7 @@ public class ApiUtil {
 	 *         and results.
 	 */
 	public CustomResponse clashAppointmentWithAuth(String endpoint, Object body) {
-		RequestSpecification request = RestAssured.given().header("Authorization", AuthUtil.getAuthHeader())
+		RequestSpecification request = RestAssured.given().header("Authorization", AuthUtil.acquire().getAuthHeader())
 				.header("Content-Type", "application/json");
 
 		// Add the body if not null
@@ -146,7 +150,7 @@ public class ApiUtil {
 	 *         status message, and the list of matching patients.
 	 */
 	public CustomResponse searchPatientWithAuth(String endpoint, Object body) {
-		RequestSpecification request = RestAssured.given().header("Authorization", AuthUtil.getAuthHeader())
+		RequestSpecification request = RestAssured.given().header("Authorization", AuthUtil.acquire().getAuthHeader())
 				.header("Content-Type", "application/json");
 
 		// Add the body if not null
@@ -174,7 +178,7 @@ public class ApiUtil {
 	 *         status message, and list of appointments in the "Results" field.
 	 */
 	public CustomResponse bookingListWithAuthInRange(String endpoint, Object body) {
-		RequestSpecification request = RestAssured.given().header("Authorization", AuthUtil.getAuthHeader())
+		RequestSpecification request = RestAssured.given().header("Authorization", AuthUtil.acquire().getAuthHeader())
 				.header("Content-Type", "application/json");
 
 		// Add the body if not null
@@ -201,7 +205,7 @@ public class ApiUtil {
 	 *         message, and a list of stock items in the "Results" field.
 	 */
 	public CustomResponse AllStockDetailsWithAuth(String endpoint, Object body) {
-		RequestSpecification request = RestAssured.given().header("Authorization", AuthUtil.getAuthHeader())
+		RequestSpecification request = RestAssured.given().header("Authorization", AuthUtil.acquire().getAuthHeader())
 				.header("Content-Type", "application/json");
 
 		// Add the body if not null
@@ -228,7 +232,7 @@ public class ApiUtil {
 	 *         message, and the store details in the "Results" field.
 	 */
 	public CustomResponse MainStoreDetailsWithAuth(String endpoint, Object body) {
-		RequestSpecification request = RestAssured.given().header("Authorization", AuthUtil.getAuthHeader())
+		RequestSpecification request = RestAssured.given().header("Authorization", AuthUtil.acquire().getAuthHeader())
 				.header("Content-Type", "application/json");
 
 		// Add the body if not null
@@ -255,7 +259,7 @@ public class ApiUtil {
 	 *         message, and the list of stores in the "Results" field.
 	 */
 	public CustomResponse PharmacyStoresWithAuth(String endpoint, Object body) {
-		RequestSpecification request = RestAssured.given().header("Authorization", AuthUtil.getAuthHeader())
+		RequestSpecification request = RestAssured.given().header("Authorization", AuthUtil.acquire().getAuthHeader())
 				.header("Content-Type", "application/json");
 
 		// Add the body if not null
@@ -282,7 +286,7 @@ public class ApiUtil {
 	 *         "Results" field.
 	 */
 	public CustomResponse PatientConsumption(String endpoint, Object body) {
-		RequestSpecification request = RestAssured.given().header("Authorization", AuthUtil.getAuthHeader())
+		RequestSpecification request = RestAssured.given().header("Authorization", AuthUtil.acquire().getAuthHeader())
 				.header("Content-Type", "application/json");
 
 		if (body != null) {
@@ -307,7 +311,7 @@ public class ApiUtil {
 	 *         field.
 	 */
 	public CustomResponse ActivatePharmCount(String endpoint, Object body) {
-		RequestSpecification request = RestAssured.given().header("Authorization", AuthUtil.getAuthHeader())
+		RequestSpecification request = RestAssured.given().header("Authorization", AuthUtil.acquire().getAuthHeader())
 				.header("Content-Type", "application/json");
 
 		if (body != null) {
@@ -332,7 +336,7 @@ public class ApiUtil {
 	 *         field.
 	 */
 	public CustomResponse DeactivatePharmCount(String endpoint, Object body) {
-		RequestSpecification request = RestAssured.given().header("Authorization", AuthUtil.getAuthHeader())
+		RequestSpecification request = RestAssured.given().header("Authorization", AuthUtil.acquire().getAuthHeader())
 				.header("Content-Type", "application/json");
 
 		if (body != null) {
@@ -358,7 +362,7 @@ public class ApiUtil {
 	 *         field.
 	 */
 	public CustomResponse AppointApplicDept(String endpoint, Object body) {
-		RequestSpecification request = RestAssured.given().header("Authorization", AuthUtil.getAuthHeader())
+		RequestSpecification request = RestAssured.given().header("Authorization", AuthUtil.acquire().getAuthHeader())
 				.header("Content-Type", "application/json");
 
 		if (body != null) {
@@ -383,7 +387,7 @@ public class ApiUtil {
 	 *         message, and the list of admitted patients in the "Results" field.
 	 */
 	public CustomResponse admittedPatientData(String endpoint, Object body) {
-		RequestSpecification request = RestAssured.given().header("Authorization", AuthUtil.getAuthHeader())
+		RequestSpecification request = RestAssured.given().header("Authorization", AuthUtil.acquire().getAuthHeader())
 				.header("Content-Type", "application/json");
 
 		if (body != null) {
@@ -408,7 +412,7 @@ public class ApiUtil {
 	 *         message, and details of the added currency in the "Results" field.
 	 */
 	public CustomResponse addCurrencyWithAuth(String endpoint, Map<String, String> body) {
-		Response response = RestAssured.given().header("Authorization", AuthUtil.getAuthHeader())
+		Response response = RestAssured.given().header("Authorization", AuthUtil.acquire().getAuthHeader())
 				.header("Content-Type", "application/json").body(body).post(BASE_URL + endpoint).then().extract()
 				.response();
 
@@ -429,13 +433,13 @@ public class ApiUtil {
 	 *         code, and results.
 	 */
 	public CustomResponse findMatchingPatientWithAuth(String endpoint, Map<String, String> body) {
-		RequestSpecification request = RestAssured.given().header("Authorization", AuthUtil.getAuthHeader())
+		RequestSpecification request = RestAssured.given().header("Authorization", AuthUtil.acquire().getAuthHeader())
 				.header("Content-Type", "application/json");
 
 		if (body != null) {
 			request.body(body);
 		}
-		System.out.println(BASE_URL + endpoint);
+		AsyncLogSink.log(BASE_URL + endpoint);
 		Response response = request.get(BASE_URL + endpoint).then().extract().response();
 
 		int statusCode = response.statusCode();
@@ -455,7 +459,7 @@ public class ApiUtil {
 	 *         code, and results.
 	 */
 	public CustomResponse getRegisteredPatientsWithAuth(String endpoint, Map<String, String> body) {
-		RequestSpecification request = RestAssured.given().header("Authorization", AuthUtil.getAuthHeader())
+		RequestSpecification request = RestAssured.given().header("Authorization", AuthUtil.acquire().getAuthHeader())
 				.header("Content-Type", "application/json");
 
 		if (body != null) {
@@ -480,7 +484,7 @@ public class ApiUtil {
 	 *         code, and results.
 	 */
 	public CustomResponse getBillingCountersWithAuth(String endpoint, Map<String, String> body) {
-		RequestSpecification request = RestAssured.given().header("Authorization", AuthUtil.getAuthHeader())
+		RequestSpecification request = RestAssured.given().header("Authorization", AuthUtil.acquire().getAuthHeader())
 				.header("Content-Type", "application/json");
 
 		if (body != null) {
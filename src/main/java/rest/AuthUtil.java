@@ -1,17 +1,48 @@
 package rest;
 
-import restConfig.ConfigManager;
-
 public class AuthUtil {
 
-	// Method to get Bearer Token from config file
+	private static final TokenPool tokenPool = TokenPool.fromConfig();
+	// account picked for the current thread's request
+	private static final ThreadLocal<TokenManager> requestAccount = new ThreadLocal<>();
+
+	// Pick the account for a new request once; its token and header are then read from it
+	public static TokenManager acquire() {
+		TokenManager account = tokenPool.acquire();
+		requestAccount.set(account);
+		return account;
+	}
+
+	// Method to get Bearer Token, from the login endpoint or the config file.
+	// Belongs to the same account as getAuthHeader() until the next acquire()
 	public static String getBearerToken() {
-		return ConfigManager.getProperty("auth.bearer.token"); // Fetch from config
+		return current().getToken();
 	}
 
-	// Method to set Authorization header
+	// Method to set Authorization header; the value is cached and refreshed before expiry.
+	// With several accounts configured the header belongs to the account acquired for this request
 	public static String getAuthHeader() {
-		return "Bearer " + getBearerToken();
+		return current().getAuthHeader();
+	}
+
+	// Pin the current thread (virtual user) to one account of the pool
+	public static void bindVirtualUser(int virtualUserId) {
+		tokenPool.bindVirtualUser(virtualUserId);
+		requestAccount.remove();
+	}
+
+	public static void unbindVirtualUser() {
+		tokenPool.unbind();
+		requestAccount.remove();
+	}
+
+	private static TokenManager current() {
+		TokenManager account = requestAccount.get();
+		return account != null ? account : acquire();
+	}
+
+	public static TokenPool getTokenPool() {
+		return tokenPool;
 	}
 
 }
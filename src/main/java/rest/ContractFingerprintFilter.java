@@ -0,0 +1,435 @@
+package rest;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import coreUtilities.utils.AsyncLogSink;
+import io.restassured.RestAssured;
+import io.restassured.filter.Filter;
+import io.restassured.filter.FilterContext;
+import io.restassured.response.Response;
+import io.restassured.specification.FilterableRequestSpecification;
+import io.restassured.specification.FilterableResponseSpecification;
+import restConfig.ConfigManager;
+
+/**
+ * RestAssured filter that reduces every successful JSON response to a
+ * structural fingerprint - the key set, value types and nesting of the body,
+ * hashed per node - and records it as a baseline or checks it against one.
+ * <p>
+ * {@code contract.mode} selects the behaviour: {@code off} (default),
+ * {@code record} to merge the shapes of all responses per endpoint and write
+ * them to {@code contract.baseline.file} at the end of the run, or
+ * {@code verify} to compare each response with its endpoint's baseline. Verify
+ * without a baseline file logs a warning and leaves the filter off.
+ * <p>
+ * Each response's root hash is compared with the baseline's and with the
+ * hashes already checked for the endpoint; the tree is only walked for a shape
+ * not seen before, to log the exact keys added, removed or retyped. Null
+ * values are compatible with any type, array items are merged into one shape,
+ * and keys missing from some of the recorded objects are stored as optional,
+ * so nullable and optional fields do not show up as drift. Endpoints are keyed
+ * by method and path, with numeric path segments replaced by {@code {id}}.
+ */
+public class ContractFingerprintFilter implements Filter {
+
+	private static final ObjectMapper mapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+	private static final String NULL = "null";
+	private static final String OBJECT = "object";
+	private static final AtomicBoolean installed = new AtomicBoolean();
+	private static final Map<String, Shape> recorded = new ConcurrentHashMap<>();
+	private static final Set<String> drifts = ConcurrentHashMap.newKeySet();
+	private static final Set<String> unknownEndpoints = ConcurrentHashMap.newKeySet();
+	// root hashes already merged or diffed, per endpoint
+	private static final Map<String, Set<Long>> seenShapes = new ConcurrentHashMap<>();
+
+	private final boolean record;
+	private final Map<String, Shape> baselines;
+
+	private ContractFingerprintFilter(boolean record, Map<String, Shape> baselines) {
+		this.record = record;
+		this.baselines = baselines;
+	}
+
+	/**
+	 * Registers the filter for all RestAssured requests unless
+	 * {@code contract.mode} is off. An unknown mode is logged and leaves the
+	 * checks off. Safe to call more than once.
+	 */
+	public static void install() {
+		String mode = ConfigManager.getProperty("contract.mode", "off").trim().toLowerCase();
+		if (mode.equals("off")) {
+			return;
+		}
+		if (!mode.equals("record") && !mode.equals("verify")) {
+			AsyncLogSink.log("Unknown contract.mode " + mode + ", contract checks are off. Use off, record or verify.");
+			return;
+		}
+		if (!installed.compareAndSet(false, true)) {
+			return;
+		}
+		ContractFingerprintFilter filter = create(mode, baselineFile());
+		if (filter != null) {
+			RestAssured.filters(filter);
+		} else {
+			installed.set(false);
+		}
+	}
+
+	static boolean isInstalled() {
+		return installed.get();
+	}
+
+	/**
+	 * @param mode - {@link String} record or verify
+	 * @param file - {@link File} baselines to verify against
+	 * @return the filter, or null when verify finds no readable baselines
+	 * @throws IllegalArgumentException if the mode is neither
+	 */
+	static ContractFingerprintFilter create(String mode, File file) {
+		if (mode.equals("record")) {
+			return new ContractFingerprintFilter(true, Collections.<String, Shape>emptyMap());
+		}
+		if (!mode.equals("verify")) {
+			throw new IllegalArgumentException("Unknown contract.mode " + mode + ", use off, record or verify");
+		}
+		if (!file.isFile()) {
+			AsyncLogSink.log("No contract baselines at " + file + ", contract verification is off."
+					+ " Run with contract.mode=record to create them.");
+			return null;
+		}
+		try {
+			return new ContractFingerprintFilter(false, readBaselines(file));
+		} catch (IOException | RuntimeException e) {
+			AsyncLogSink.log("Cannot read contract baselines " + file + ", contract verification is off: " + e);
+			return null;
+		}
+	}
+
+	/**
+	 * Ends the run: in record mode the recorded shapes are written over their
+	 * endpoints' baselines, keeping baselines of endpoints not called; in verify
+	 * mode the number of drifts found is logged.
+	 */
+	public static void finish() {
+		if (!installed.get()) {
+			return;
+		}
+		if (!recorded.isEmpty()) {
+			File file = baselineFile();
+			try {
+				Map<String, Shape> baselines = new TreeMap<>(file.isFile() ? readBaselines(file)
+						: Collections.<String, Shape>emptyMap());
+				baselines.putAll(recorded);
+				writeBaselines(file, baselines);
+				AsyncLogSink.log("Recorded contract baselines of " + recorded.size() + " endpoints to " + file);
+			} catch (IOException e) {
+				AsyncLogSink.log("Failed to write contract baselines " + file + ": " + e);
+			}
+		}
+		if (!drifts.isEmpty()) {
+			AsyncLogSink.log("Contract drift found in " + drifts.size() + " places, see the log above.");
+		}
+	}
+
+	/**
+	 * @return every drift logged so far, as "endpoint path: change"
+	 */
+	public static List<String> drifts() {
+		return new ArrayList<>(drifts);
+	}
+
+	@Override
+	public Response filter(FilterableRequestSpecification requestSpec, FilterableResponseSpecification responseSpec,
+			FilterContext ctx) {
+		Response response = ctx.next(requestSpec, responseSpec);
+		int status = response.getStatusCode();
+		String contentType = response.getContentType();
+		if (status < 200 || status >= 300 || contentType == null || !contentType.contains("json")) {
+			return response;
+		}
+		JsonNode body;
+		try {
+			body = mapper.readTree(response.asByteArray());
+		} catch (IOException e) {
+			return response;
+		}
+		if (body == null) {
+			return response;
+		}
+		String endpoint = requestSpec.getMethod() + " " + normalize(requestSpec.getURI());
+		Shape shape = Shape.of(body);
+		// the same shape merges and diffs the same way every time
+		boolean seen = !seenShapes.computeIfAbsent(endpoint, e -> ConcurrentHashMap.<Long>newKeySet()).add(shape.hash);
+		if (record) {
+			if (!seen) {
+				recorded.merge(endpoint, shape, Shape::merge);
+			}
+			return response;
+		}
+		Shape baseline = baselines.get(endpoint);
+		if (baseline == null) {
+			if (unknownEndpoints.add(endpoint)) {
+				AsyncLogSink.log("No contract baseline for " + endpoint);
+			}
+		} else if (!seen && baseline.hash != shape.hash) {
+			for (String change : changes(baseline, shape)) {
+				if (drifts.add(endpoint + " " + change)) {
+					AsyncLogSink.log("Contract drift in " + endpoint + " " + change);
+				}
+			}
+		}
+		return response;
+	}
+
+	/**
+	 * @param baseline - {@link Shape} recorded
+	 * @param current  - {@link Shape} of a response
+	 * @return the drifts of current from baseline, as "path: change"
+	 */
+	static List<String> changes(Shape baseline, Shape current) {
+		List<String> changes = new ArrayList<>();
+		diff(baseline, current, "$", changes);
+		return changes;
+	}
+
+	private static String normalize(String uri) {
+		String path;
+		try {
+			path = URI.create(uri).getPath();
+		} catch (IllegalArgumentException e) {
+			int query = uri.indexOf('?');
+			path = query < 0 ? uri : uri.substring(0, query);
+		}
+		return path == null ? uri : path.replaceAll("/\\d+(?=/|$)", "/{id}");
+	}
+
+	private static void diff(Shape baseline, Shape current, String path, List<String> changes) {
+		if (baseline.hash == current.hash || baseline.isNull() || current.isNull()) {
+			return;
+		}
+		if (!baseline.types.containsAll(current.types)) {
+			changes.add(path + ": type changed from " + baseline.types + " to " + current.types);
+			return;
+		}
+		for (Map.Entry<String, Shape> property : baseline.properties.entrySet()) {
+			Shape currentProperty = current.properties.get(property.getKey());
+			if (currentProperty == null) {
+				if (!baseline.optional.contains(property.getKey()) && current.types.contains(OBJECT)) {
+					changes.add(path + "." + property.getKey() + ": removed");
+				}
+			} else {
+				diff(property.getValue(), currentProperty, path + "." + property.getKey(), changes);
+			}
+		}
+		for (String key : current.properties.keySet()) {
+			if (!baseline.properties.containsKey(key)) {
+				changes.add(path + "." + key + ": added");
+			}
+		}
+		if (baseline.items != null && current.items != null) {
+			diff(baseline.items, current.items, path + "[]", changes);
+		}
+	}
+
+	private static File baselineFile() {
+		return new File(ConfigManager.getProperty("contract.baseline.file",
+				"src/test/java/testdata/contract_baselines.json"));
+	}
+
+	private static Map<String, Shape> readBaselines(File file) throws IOException {
+		Map<String, Shape> baselines = new TreeMap<>();
+		Iterator<Map.Entry<String, JsonNode>> entries = mapper.readTree(file).fields();
+		while (entries.hasNext()) {
+			Map.Entry<String, JsonNode> entry = entries.next();
+			baselines.put(entry.getKey(), Shape.fromJson(entry.getValue()));
+		}
+		return baselines;
+	}
+
+	private static void writeBaselines(File file, Map<String, Shape> baselines) throws IOException {
+		ObjectNode root = mapper.createObjectNode();
+		for (Map.Entry<String, Shape> baseline : baselines.entrySet()) {
+			root.set(baseline.getKey(), baseline.getValue().toJson());
+		}
+		File parent = file.getAbsoluteFile().getParentFile();
+		if (parent != null) {
+			parent.mkdirs();
+		}
+		mapper.writeValue(file, root);
+	}
+
+	/**
+	 * Immutable structure of a JSON value: its types, the shapes of its
+	 * properties, which of them are optional and the merged shape of its array
+	 * items, with a 64-bit hash over all of them.
+	 */
+	static final class Shape {
+		private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+		private static final long FNV_PRIME = 0x100000001b3L;
+
+		private final Set<String> types;
+		private final Map<String, Shape> properties;
+		private final Set<String> optional;
+		private final Shape items;
+		private final long hash;
+
+		private Shape(Set<String> types, Map<String, Shape> properties, Set<String> optional, Shape items) {
+			this.types = Collections.unmodifiableSet(types);
+			this.properties = Collections.unmodifiableMap(properties);
+			this.optional = Collections.unmodifiableSet(optional);
+			this.items = items;
+			long h = hash(FNV_OFFSET, types.toString());
+			for (Map.Entry<String, Shape> property : properties.entrySet()) {
+				h = hash(h, property.getKey());
+				h = (h ^ property.getValue().hash) * FNV_PRIME;
+			}
+			h = hash(h, optional.toString());
+			if (items != null) {
+				h = (hash(h, "[]") ^ items.hash) * FNV_PRIME;
+			}
+			this.hash = h;
+		}
+
+		static Shape of(JsonNode node) {
+			Map<String, Shape> properties = new TreeMap<>();
+			Shape items = null;
+			if (node.isObject()) {
+				Iterator<Map.Entry<String, JsonNode>> fields = node.fields();
+				while (fields.hasNext()) {
+					Map.Entry<String, JsonNode> field = fields.next();
+					properties.put(field.getKey(), of(field.getValue()));
+				}
+			} else if (node.isArray()) {
+				for (JsonNode item : node) {
+					items = merge(items, of(item));
+				}
+			}
+			return new Shape(new TreeSet<>(Collections.singleton(typeOf(node))), properties,
+					Collections.<String>emptySet(), items);
+		}
+
+		static Shape merge(Shape a, Shape b) {
+			if (a == null || b == null) {
+				return a == null ? b : a;
+			}
+			if (a.hash == b.hash || b.isNull()) {
+				return a;
+			}
+			if (a.isNull()) {
+				return b;
+			}
+			Set<String> types = new TreeSet<>(a.types);
+			types.addAll(b.types);
+			Map<String, Shape> properties = new TreeMap<>(a.properties);
+			for (Map.Entry<String, Shape> property : b.properties.entrySet()) {
+				properties.merge(property.getKey(), property.getValue(), Shape::merge);
+			}
+			Set<String> optional = new TreeSet<>(a.optional);
+			optional.addAll(b.optional);
+			if (a.types.contains(OBJECT) && b.types.contains(OBJECT)) {
+				// a key only some of the objects have
+				for (String key : properties.keySet()) {
+					if (!a.properties.containsKey(key) || !b.properties.containsKey(key)) {
+						optional.add(key);
+					}
+				}
+			}
+			return new Shape(types, properties, optional, merge(a.items, b.items));
+		}
+
+		long hash() {
+			return hash;
+		}
+
+		private boolean isNull() {
+			return types.size() == 1 && types.contains(NULL);
+		}
+
+		ObjectNode toJson() {
+			ObjectNode json = mapper.createObjectNode();
+			ArrayNode typeNames = json.putArray("types");
+			for (String type : types) {
+				typeNames.add(type);
+			}
+			json.put("hash", Long.toHexString(hash));
+			if (!properties.isEmpty()) {
+				ObjectNode propertyShapes = json.putObject("properties");
+				for (Map.Entry<String, Shape> property : properties.entrySet()) {
+					propertyShapes.set(property.getKey(), property.getValue().toJson());
+				}
+			}
+			if (!optional.isEmpty()) {
+				ArrayNode optionalNames = json.putArray("optional");
+				for (String key : optional) {
+					optionalNames.add(key);
+				}
+			}
+			if (items != null) {
+				json.set("items", items.toJson());
+			}
+			return json;
+		}
+
+		static Shape fromJson(JsonNode json) {
+			Set<String> types = new TreeSet<>();
+			for (JsonNode type : json.path("types")) {
+				types.add(type.asText());
+			}
+			Set<String> optional = new TreeSet<>();
+			for (JsonNode key : json.path("optional")) {
+				optional.add(key.asText());
+			}
+			Map<String, Shape> properties = new TreeMap<>();
+			Iterator<Map.Entry<String, JsonNode>> entries = json.path("properties").fields();
+			while (entries.hasNext()) {
+				Map.Entry<String, JsonNode> entry = entries.next();
+				properties.put(entry.getKey(), fromJson(entry.getValue()));
+			}
+			return new Shape(types, properties, optional, json.has("items") ? fromJson(json.get("items")) : null);
+		}
+
+		private static String typeOf(JsonNode node) {
+			if (node.isObject()) {
+				return OBJECT;
+			}
+			if (node.isArray()) {
+				return "array";
+			}
+			if (node.isTextual()) {
+				return "string";
+			}
+			if (node.isNumber()) {
+				return "number";
+			}
+			if (node.isBoolean()) {
+				return "boolean";
+			}
+			return NULL;
+		}
+
+		private static long hash(long h, String text) {
+			for (int i = 0; i < text.length(); i++) {
+				h = (h ^ text.charAt(i)) * FNV_PRIME;
+			}
+			return h;
+		}
+	}
+}
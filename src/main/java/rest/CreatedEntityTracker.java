@@ -0,0 +1,104 @@
+package rest;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import coreUtilities.utils.AsyncLogSink;
+import restConfig.ConfigManager;
+
+/**
+ * Remembers the appointments created during the run so they can be cancelled
+ * together at suite end instead of piling up in the shared environment.
+ * <p>
+ * {@link ApiUtil#createAppointmentWithAuth} tracks every appointment it
+ * creates; tests that cancel one themselves untrack it.
+ * {@link #cancelAll()} cancels the rest with at most
+ * {@code cleanup.parallelism} concurrent requests, unless
+ * {@code cleanup.enabled} is false.
+ */
+public class CreatedEntityTracker {
+
+	private static final Set<Integer> appointments = ConcurrentHashMap.newKeySet();
+
+	public static void trackAppointment(Integer appointmentId) {
+		if (appointmentId != null) {
+			appointments.add(appointmentId);
+		}
+	}
+
+	public static void untrackAppointment(Integer appointmentId) {
+		if (appointmentId != null) {
+			appointments.remove(appointmentId);
+		}
+	}
+
+	/**
+	 * @return number of appointments still to be cancelled
+	 */
+	public static int trackedAppointments() {
+		return appointments.size();
+	}
+
+	/**
+	 * Cancels every tracked appointment concurrently and waits up to
+	 * {@code cleanup.timeout}. Appointments that could not be cancelled stay
+	 * tracked.
+	 *
+	 * @return number of appointments cancelled
+	 */
+	public static int cancelAll() {
+		if (!ConfigManager.getBoolean("cleanup.enabled", true) || appointments.isEmpty()) {
+			return 0;
+		}
+		List<Callable<Boolean>> cancellations = new ArrayList<>();
+		for (final Integer appointmentId : new ArrayList<>(appointments)) {
+			cancellations.add(() -> cancel(appointmentId));
+		}
+		int parallelism = Math.max(1, ConfigManager.getInt("cleanup.parallelism", 4));
+		ExecutorService executor = Executors.newFixedThreadPool(Math.min(parallelism, cancellations.size()), r -> {
+			Thread thread = new Thread(r, "appointment-cleanup");
+			thread.setDaemon(true);
+			return thread;
+		});
+		int cancelled = 0;
+		try {
+			long timeout = ConfigManager.getDuration("cleanup.timeout", Duration.ofSeconds(60)).toMillis();
+			for (Future<Boolean> result : executor.invokeAll(cancellations, timeout, TimeUnit.MILLISECONDS)) {
+				if (!result.isCancelled() && Boolean.TRUE.equals(result.get())) {
+					cancelled++;
+				}
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		} catch (Exception e) {
+			AsyncLogSink.log("Appointment cleanup failed: " + e.getMessage());
+		} finally {
+			executor.shutdownNow();
+		}
+		AsyncLogSink.log("Cancelled " + cancelled + " of " + cancellations.size() + " appointments created in this run");
+		return cancelled;
+	}
+
+	private static boolean cancel(Integer appointmentId) {
+		try {
+			CustomResponse customResponse = new ApiUtil().cancelAppointmentWithAuth(
+					"/Appointment/AppointmentStatus?appointmentId=" + appointmentId + "&status=cancelled", null);
+			if (customResponse.getStatusCode() < 400) {
+				appointments.remove(appointmentId);
+				return true;
+			}
+			AsyncLogSink.log("Cancelling appointment " + appointmentId + " returned " + customResponse.getStatusCode());
+		} catch (RuntimeException e) {
+			AsyncLogSink.log("Cancelling appointment " + appointmentId + " failed: " + e.getMessage());
+		}
+		return false;
+	}
+}
@@ -0,0 +1,140 @@
+package rest;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import io.restassured.RestAssured;
+import io.restassured.filter.Filter;
+import io.restassured.filter.FilterContext;
+import io.restassured.response.Response;
+import io.restassured.specification.FilterableRequestSpecification;
+import io.restassured.specification.FilterableResponseSpecification;
+
+/**
+ * RestAssured filter that times every request. Requests made on a thread
+ * running a test, between {@link #beginTest()} and {@link #drain()}, are
+ * collected for that test. Requests made anywhere else, e.g. by data-pool or
+ * cleanup executors, go to a shared sink read with {@link #drainShared()}.
+ */
+public class EndpointTimingFilter implements Filter {
+
+	private static final EndpointTimingFilter INSTANCE = new EndpointTimingFilter();
+	private static final AtomicBoolean installed = new AtomicBoolean();
+	// null while the thread is not running a test
+	private static final ThreadLocal<List<EndpointTiming>> timings = new ThreadLocal<>();
+	private static final Queue<EndpointTiming> shared = new ConcurrentLinkedQueue<>();
+
+	/**
+	 * Registers the filter for all RestAssured requests. Safe to call more than
+	 * once.
+	 */
+	public static void install() {
+		if (installed.compareAndSet(false, true)) {
+			RestAssured.filters(INSTANCE);
+		}
+	}
+
+	/**
+	 * Starts collecting the current thread's timings for the test it runs,
+	 * discarding any left over.
+	 */
+	public static void beginTest() {
+		timings.set(new ArrayList<EndpointTiming>());
+	}
+
+	/**
+	 * @return the timings recorded on the current thread since
+	 *         {@link #beginTest()}, in request order; later requests on the
+	 *         thread go to the shared sink until the next test begins
+	 */
+	public static List<EndpointTiming> drain() {
+		List<EndpointTiming> recorded = timings.get();
+		timings.remove();
+		return recorded == null || recorded.isEmpty() ? Collections.<EndpointTiming>emptyList() : recorded;
+	}
+
+	/**
+	 * @return the timings of requests made outside tests since the last call, in
+	 *         completion order
+	 */
+	public static List<EndpointTiming> drainShared() {
+		List<EndpointTiming> drained = new ArrayList<>();
+		EndpointTiming timing;
+		while ((timing = shared.poll()) != null) {
+			drained.add(timing);
+		}
+		return drained;
+	}
+
+	@Override
+	public Response filter(FilterableRequestSpecification requestSpec, FilterableResponseSpecification responseSpec,
+			FilterContext ctx) {
+		long start = System.nanoTime();
+		int status = -1;
+		try {
+			Response response = ctx.next(requestSpec, responseSpec);
+			status = response.getStatusCode();
+			return response;
+		} finally {
+			long millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+			EndpointTiming timing = new EndpointTiming(requestSpec.getMethod(), pathOf(requestSpec.getURI()), status,
+					millis);
+			List<EndpointTiming> recorded = timings.get();
+			if (recorded != null) {
+				recorded.add(timing);
+			} else {
+				shared.add(timing);
+			}
+		}
+	}
+
+	private static String pathOf(String uri) {
+		try {
+			String path = URI.create(uri).getPath();
+			return path == null || path.isEmpty() ? uri : path;
+		} catch (IllegalArgumentException e) {
+			int query = uri.indexOf('?');
+			return query < 0 ? uri : uri.substring(0, query);
+		}
+	}
+
+	/**
+	 * One timed request. The endpoint is the request path without host or
+	 * query string; status is -1 when the request failed without a response.
+	 */
+	public static final class EndpointTiming {
+		private final String method;
+		private final String endpoint;
+		private final int status;
+		private final long millis;
+
+		public EndpointTiming(String method, String endpoint, int status, long millis) {
+			this.method = method;
+			this.endpoint = endpoint;
+			this.status = status;
+			this.millis = millis;
+		}
+
+		public String getMethod() {
+			return method;
+		}
+
+		public String getEndpoint() {
+			return endpoint;
+		}
+
+		public int getStatus() {
+			return status;
+		}
+
+		public long getMillis() {
+			return millis;
+		}
+	}
+}
@@ -0,0 +1,248 @@
+package rest;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import coreUtilities.utils.AsyncLogSink;
+import io.restassured.RestAssured;
+import io.restassured.response.Response;
+import restConfig.ConfigManager;
+
+/**
+ * Holds the bearer token for one account and the precomputed
+ * {@code Authorization} header value for it.
+ * <p>
+ * When {@code auth.login.endpoint} is configured the token is obtained by
+ * posting the account credentials to that endpoint; otherwise the static
+ * {@code auth.bearer.token} is used until the configuration is reloaded. A
+ * login token expires at its JWT {@code exp} claim, or after
+ * {@code auth.token.ttl} when it is not a JWT. A background task renews it
+ * {@code auth.refresh.skew} before it expires, and if a caller still finds it
+ * expired, concurrent callers share a single synchronous refresh.
+ */
+public class TokenManager {
+
+	private static final ObjectMapper mapper = new ObjectMapper();
+	private static final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+		Thread thread = new Thread(r, "token-refresh");
+		thread.setDaemon(true);
+		return thread;
+	});
+
+	private final String username;
+	private final String password;
+	private final String staticToken;
+	private final ReentrantLock refreshLock = new ReentrantLock();
+	private volatile CachedToken cached;
+	private ScheduledFuture<?> scheduledRefresh;
+
+	/**
+	 * Creates a manager for the given account. With null credentials, or when
+	 * no login endpoint is configured, the static configured token is used. The
+	 * cached token is dropped whenever the configuration is reloaded.
+	 *
+	 * @param username - {@link String}
+	 * @param password - {@link String}
+	 */
+	public TokenManager(String username, String password) {
+		this(username, password, null);
+	}
+
+	private TokenManager(String username, String password, String staticToken) {
+		this.username = username;
+		this.password = password;
+		this.staticToken = staticToken;
+		if (staticToken == null) {
+			// a reloaded configuration may carry a new static token, endpoint or credentials
+			ConfigManager.addReloadListener(snapshot -> invalidate());
+		}
+	}
+
+	/**
+	 * @param token - {@link String} a fixed bearer token
+	 * @return a manager that always serves the given token
+	 */
+	public static TokenManager ofStaticToken(String token) {
+		return new TokenManager(null, null, token);
+	}
+
+	/**
+	 * @return a manager for the account configured by {@code auth.username} and
+	 *         {@code auth.password}
+	 */
+	public static TokenManager fromConfig() {
+		return new TokenManager(ConfigManager.getProperty("auth.username", null),
+				ConfigManager.getProperty("auth.password", null));
+	}
+
+	/**
+	 * @return the cached header value, e.g. "Bearer eyJ..."
+	 */
+	public String getAuthHeader() {
+		return current().header;
+	}
+
+	/**
+	 * @return the cached raw token
+	 */
+	public String getToken() {
+		return current().token;
+	}
+
+	/**
+	 * @return the account name this manager logs in with, or null for the static
+	 *         token
+	 */
+	public String getUsername() {
+		return username;
+	}
+
+	/**
+	 * Drops the cached token and cancels its scheduled renewal; the next caller
+	 * fetches a new one.
+	 */
+	public void invalidate() {
+		refreshLock.lock();
+		try {
+			if (scheduledRefresh != null) {
+				scheduledRefresh.cancel(false);
+				scheduledRefresh = null;
+			}
+			cached = null;
+		} finally {
+			refreshLock.unlock();
+		}
+	}
+
+	private CachedToken current() {
+		CachedToken token = cached;
+		if (token != null && !token.isExpired()) {
+			return token;
+		}
+		return refresh(token);
+	}
+
+	private CachedToken refresh(CachedToken seen) {
+		refreshLock.lock();
+		try {
+			CachedToken token = cached;
+			if (token != seen && token != null && !token.isExpired()) {
+				// another caller refreshed while we were waiting for the lock
+				return token;
+			}
+			token = fetch();
+			cached = token;
+			scheduleRefresh(token);
+			return token;
+		} finally {
+			refreshLock.unlock();
+		}
+	}
+
+	private void scheduleRefresh(CachedToken token) {
+		if (scheduledRefresh != null) {
+			scheduledRefresh.cancel(false);
+		}
+		if (token.expiresAt == Long.MAX_VALUE) {
+			return;
+		}
+		long now = System.currentTimeMillis();
+		long skew = ConfigManager.getDuration("auth.refresh.skew", Duration.ofSeconds(60)).toMillis();
+		// never closer than half the remaining lifetime, so short-lived tokens do not spin
+		long refreshAt = Math.max(token.expiresAt - skew, now + (token.expiresAt - now) / 2);
+		long delay = Math.max(0, refreshAt - now);
+		scheduledRefresh = scheduler.schedule(this::backgroundRefresh, delay, TimeUnit.MILLISECONDS);
+	}
+
+	private void backgroundRefresh() {
+		refreshLock.lock();
+		try {
+			CachedToken token = fetch();
+			cached = token;
+			scheduleRefresh(token);
+		} catch (RuntimeException e) {
+			// keep serving the current token; callers refresh synchronously once it expires
+			AsyncLogSink.log("Background token refresh failed: " + e.getMessage());
+			scheduledRefresh = scheduler.schedule(this::backgroundRefresh, 30, TimeUnit.SECONDS);
+		} finally {
+			refreshLock.unlock();
+		}
+	}
+
+	private CachedToken fetch() {
+		if (staticToken != null) {
+			return new CachedToken(staticToken, Long.MAX_VALUE);
+		}
+		String endpoint = ConfigManager.getProperty("auth.login.endpoint", null);
+		if (endpoint == null || username == null) {
+			// a static token cannot be renewed here; it is re-read when the config reloads
+			String token = ConfigManager.getProperty("auth.bearer.token");
+			if (token == null || token.isEmpty()) {
+				throw new IllegalStateException("No auth.bearer.token configured");
+			}
+			return new CachedToken(token, Long.MAX_VALUE);
+		}
+		String token = login(endpoint);
+		if (token == null || token.isEmpty()) {
+			throw new IllegalStateException("Login for " + username + " returned no token");
+		}
+		return new CachedToken(token, expiryOf(token));
+	}
+
+	private String login(String endpoint) {
+		Map<String, String> credentials = new HashMap<>();
+		credentials.put("UserName", username);
+		credentials.put("Password", password);
+
+		Response response = RestAssured.given().header("Content-Type", "application/json").body(credentials)
+				.post(ConfigManager.getProperty("base.url") + endpoint).then().extract().response();
+		if (response.statusCode() >= 400) {
+			throw new IllegalStateException("Login for " + username + " failed with status " + response.statusCode());
+		}
+		return response.jsonPath().getString(ConfigManager.getProperty("auth.login.token.path", "token"));
+	}
+
+	private static long expiryOf(String token) {
+		long now = System.currentTimeMillis();
+		String[] parts = token.split("\\.");
+		if (parts.length == 3) {
+			try {
+				byte[] payload = Base64.getUrlDecoder().decode(parts[1]);
+				JsonNode exp = mapper.readTree(new String(payload, StandardCharsets.UTF_8)).get("exp");
+				if (exp != null && exp.canConvertToLong() && TimeUnit.SECONDS.toMillis(exp.asLong()) > now) {
+					return TimeUnit.SECONDS.toMillis(exp.asLong());
+				}
+			} catch (Exception e) {
+				// not a readable JWT, fall back to the configured lifetime
+			}
+		}
+		return now + ConfigManager.getDuration("auth.token.ttl", Duration.ofMinutes(30)).toMillis();
+	}
+
+	private static final class CachedToken {
+		private final String token;
+		private final String header;
+		private final long expiresAt;
+
+		private CachedToken(String token, long expiresAt) {
+			this.token = token;
+			this.header = "Bearer " + token;
+			this.expiresAt = expiresAt;
+		}
+
+		private boolean isExpired() {
+			return System.currentTimeMillis() >= expiresAt;
+		}
+	}
+}
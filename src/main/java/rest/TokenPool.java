@@ -0,0 +1,118 @@
+package rest;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import restConfig.ConfigManager;
+
+/**
+ * A fixed set of {@link TokenManager}s, one per account, so load can be spread
+ * over several users instead of a single bearer token.
+ * <p>
+ * Accounts come from {@code auth.accounts} as comma separated
+ * {@code user:password} pairs (logged in through {@code auth.login.endpoint},
+ * which is then required), or from {@code auth.bearer.tokens} as comma separated static tokens. With
+ * neither, the pool holds the single account from {@link TokenManager#fromConfig()}.
+ * <p>
+ * {@code auth.pool.strategy} selects how a request picks its account:
+ * {@code round-robin} rotates on every request; {@code per-user} (the default)
+ * pins each thread, i.e. each virtual user, to one account for its lifetime.
+ * A thread bound with {@link #bindVirtualUser(int)} keeps its account under
+ * either strategy.
+ */
+public class TokenPool {
+
+	public static final String ROUND_ROBIN = "round-robin";
+	public static final String PER_USER = "per-user";
+
+	private final List<TokenManager> managers;
+	private final String strategy;
+	private final AtomicInteger next = new AtomicInteger();
+	private final ThreadLocal<TokenManager> assigned = new ThreadLocal<>();
+
+	public TokenPool(List<TokenManager> managers, String strategy) {
+		if (managers.isEmpty()) {
+			throw new IllegalArgumentException("Token pool needs at least one account");
+		}
+		this.managers = Collections.unmodifiableList(new ArrayList<>(managers));
+		this.strategy = strategy;
+	}
+
+	/**
+	 * @return a pool built from {@code auth.accounts} or
+	 *         {@code auth.bearer.tokens}
+	 * @throws IllegalStateException if several accounts are configured without
+	 *                               {@code auth.login.endpoint}, as they would
+	 *                               all share the static bearer token
+	 */
+	public static TokenPool fromConfig() {
+		List<TokenManager> managers = new ArrayList<>();
+		String accounts = ConfigManager.getProperty("auth.accounts", null);
+		String tokens = ConfigManager.getProperty("auth.bearer.tokens", null);
+		if (accounts != null) {
+			for (String account : accounts.split(",")) {
+				int separator = account.indexOf(':');
+				if (separator > 0) {
+					managers.add(new TokenManager(account.substring(0, separator).trim(),
+							account.substring(separator + 1).trim()));
+				}
+			}
+		} else if (tokens != null) {
+			for (String token : tokens.split(",")) {
+				if (!token.trim().isEmpty()) {
+					managers.add(TokenManager.ofStaticToken(token.trim()));
+				}
+			}
+		}
+		if (managers.size() > 1 && accounts != null
+				&& ConfigManager.getProperty("auth.login.endpoint", null) == null) {
+			throw new IllegalStateException("auth.accounts lists " + managers.size()
+					+ " accounts but auth.login.endpoint is not set; use auth.bearer.tokens for static tokens");
+		}
+		if (managers.isEmpty()) {
+			managers.add(TokenManager.fromConfig());
+		}
+		return new TokenPool(managers, ConfigManager.getProperty("auth.pool.strategy", PER_USER));
+	}
+
+	/**
+	 * @return the account to use for the current request
+	 */
+	public TokenManager acquire() {
+		if (managers.size() == 1) {
+			return managers.get(0);
+		}
+		TokenManager manager = assigned.get();
+		if (manager != null) {
+			return manager;
+		}
+		manager = managers.get(Math.floorMod(next.getAndIncrement(), managers.size()));
+		if (!ROUND_ROBIN.equalsIgnoreCase(strategy)) {
+			assigned.set(manager);
+		}
+		return manager;
+	}
+
+	/**
+	 * Pins the current thread to the account for the given virtual user id, so
+	 * the same user always maps to the same account.
+	 *
+	 * @param virtualUserId - any non-negative id
+	 */
+	public void bindVirtualUser(int virtualUserId) {
+		assigned.set(managers.get(Math.floorMod(virtualUserId, managers.size())));
+	}
+
+	/**
+	 * Releases the current thread's account; the next request is assigned anew.
+	 */
+	public void unbind() {
+		assigned.remove();
+	}
+
+	public int size() {
+		return managers.size();
+	}
+}
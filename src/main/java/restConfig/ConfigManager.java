@@ -1,22 +1,275 @@
 package restConfig;
 
+import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Properties;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
 
+import coreUtilities.utils.Log;
+
+/**
+ * Reads the framework configuration into an immutable {@link Snapshot}. The
+ * current snapshot is held in a volatile field, so lookups never lock; a
+ * reload builds a new snapshot and swaps it in.
+ * <p>
+ * A value is resolved from, in order of precedence: a JVM system property with
+ * the same key, an environment variable named after the key in upper case
+ * with dots replaced by underscores (auth.bearer.token -> AUTH_BEARER_TOKEN),
+ * and finally the properties file. The file is taken from
+ * {@code -Dconfig.file}, then {@code src/main/resources/config.properties},
+ * then {@code config.properties} on the classpath.
+ * <p>
+ * With {@code config.hot.reload=true} the file is watched and every change is
+ * picked up without restarting the JVM.
+ */
 public class ConfigManager {
-	private static Properties props = new Properties();
+
+	private static final String DEFAULT_CONFIG_PATH = "src/main/resources/config.properties";
+	private static final String CLASSPATH_CONFIG = "config.properties";
+
+	private static final List<Consumer<Snapshot>> reloadListeners = new CopyOnWriteArrayList<>();
+	private static final File configFile = resolveConfigFile();
+	private static volatile Snapshot snapshot = load();
 
 	static {
-		try {
-			FileInputStream fis = new FileInputStream("src/main/resources/config.properties");
-			props.load(fis);
+		if (snapshot.getBoolean("config.hot.reload", false) && configFile != null) {
+			startWatcher();
+		}
+	}
+
+	public static String getProperty(String key) {
+		return snapshot.get(key);
+	}
+
+	public static String getProperty(String key, String defaultValue) {
+		return snapshot.get(key, defaultValue);
+	}
+
+	public static int getInt(String key, int defaultValue) {
+		return snapshot.getInt(key, defaultValue);
+	}
+
+	public static long getLong(String key, long defaultValue) {
+		return snapshot.getLong(key, defaultValue);
+	}
+
+	public static double getDouble(String key, double defaultValue) {
+		return snapshot.getDouble(key, defaultValue);
+	}
+
+	public static boolean getBoolean(String key, boolean defaultValue) {
+		return snapshot.getBoolean(key, defaultValue);
+	}
+
+	public static Duration getDuration(String key, Duration defaultValue) {
+		return snapshot.getDuration(key, defaultValue);
+	}
+
+	/**
+	 * @return the configuration currently in effect; callers that read several
+	 *         related keys should read them from one snapshot
+	 */
+	public static Snapshot snapshot() {
+		return snapshot;
+	}
+
+	/**
+	 * Re-reads the configuration file and overrides and publishes the result.
+	 */
+	public static synchronized void reload() {
+		snapshot = load();
+		for (Consumer<Snapshot> listener : reloadListeners) {
+			try {
+				listener.accept(snapshot);
+			} catch (RuntimeException e) {
+				e.printStackTrace();
+			}
+		}
+	}
+
+	/**
+	 * Registers a callback that receives every snapshot published by
+	 * {@link #reload()}.
+	 *
+	 * @param listener - {@link Consumer}
+	 */
+	public static void addReloadListener(Consumer<Snapshot> listener) {
+		reloadListeners.add(listener);
+	}
+
+	private static File resolveConfigFile() {
+		String explicit = System.getProperty("config.file");
+		if (explicit != null && !explicit.trim().isEmpty()) {
+			return new File(explicit.trim()).getAbsoluteFile();
+		}
+		File defaultFile = new File(DEFAULT_CONFIG_PATH);
+		if (defaultFile.isFile()) {
+			return defaultFile.getAbsoluteFile();
+		}
+		return null;
+	}
+
+	private static Snapshot load() {
+		Properties props = new Properties();
+		try (InputStream in = configFile != null ? new FileInputStream(configFile)
+				: ConfigManager.class.getClassLoader().getResourceAsStream(CLASSPATH_CONFIG)) {
+			if (in != null) {
+				props.load(in);
+			}
 		} catch (IOException e) {
 			e.printStackTrace();
 		}
+
+		Map<String, String> values = new HashMap<>();
+		for (String key : props.stringPropertyNames()) {
+			String env = System.getenv(envName(key));
+			values.put(key, env != null ? env : props.getProperty(key));
+		}
+		Properties system = System.getProperties();
+		for (String key : system.stringPropertyNames()) {
+			values.put(key, system.getProperty(key));
+		}
+		return new Snapshot(values);
 	}
 
-	public static String getProperty(String key) {
-		return props.getProperty(key);
+	private static String envName(String key) {
+		return key.replace('.', '_').replace('-', '_').toUpperCase(Locale.ROOT);
+	}
+
+	private static void startWatcher() {
+		Thread watcher = new Thread(() -> {
+			Path file = configFile.toPath();
+			try (WatchService watchService = FileSystems.getDefault().newWatchService()) {
+				file.getParent().register(watchService, StandardWatchEventKinds.ENTRY_MODIFY,
+						StandardWatchEventKinds.ENTRY_CREATE);
+				while (true) {
+					WatchKey key = watchService.take();
+					boolean changed = false;
+					for (WatchEvent<?> event : key.pollEvents()) {
+						if (file.getFileName().equals(event.context())) {
+							changed = true;
+						}
+					}
+					key.reset();
+					if (changed) {
+						// editors often write the file in several steps
+						Thread.sleep(100);
+						reload();
+						Log.logger.info("Configuration reloaded from {}", file);
+					}
+				}
+			} catch (IOException e) {
+				Log.logger.error("Configuration watcher stopped", e);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}, "config-watcher");
+		watcher.setDaemon(true);
+		watcher.start();
+	}
+
+	/**
+	 * Immutable view of the resolved configuration.
+	 */
+	public static final class Snapshot {
+		private final Map<String, String> values;
+		private final long loadedAt;
+
+		private Snapshot(Map<String, String> values) {
+			this.values = Collections.unmodifiableMap(values);
+			this.loadedAt = System.currentTimeMillis();
+		}
+
+		public String get(String key) {
+			String value = values.get(key);
+			// environment variables for keys that are not in the file
+			return value != null ? value : System.getenv(envName(key));
+		}
+
+		public String get(String key, String defaultValue) {
+			String value = get(key);
+			return value == null || value.trim().isEmpty() ? defaultValue : value.trim();
+		}
+
+		public int getInt(String key, int defaultValue) {
+			String value = get(key, null);
+			try {
+				return value == null ? defaultValue : Integer.parseInt(value);
+			} catch (NumberFormatException e) {
+				return defaultValue;
+			}
+		}
+
+		public long getLong(String key, long defaultValue) {
+			String value = get(key, null);
+			try {
+				return value == null ? defaultValue : Long.parseLong(value);
+			} catch (NumberFormatException e) {
+				return defaultValue;
+			}
+		}
+
+		public double getDouble(String key, double defaultValue) {
+			String value = get(key, null);
+			try {
+				return value == null ? defaultValue : Double.parseDouble(value);
+			} catch (NumberFormatException e) {
+				return defaultValue;
+			}
+		}
+
+		public boolean getBoolean(String key, boolean defaultValue) {
+			String value = get(key, null);
+			return value == null ? defaultValue : Boolean.parseBoolean(value);
+		}
+
+		/**
+		 * Reads a duration written as a number with an optional unit: ms, s, m or
+		 * h. A bare number is taken as milliseconds.
+		 */
+		public Duration getDuration(String key, Duration defaultValue) {
+			String value = get(key, null);
+			if (value == null) {
+				return defaultValue;
+			}
+			String text = value.toLowerCase(Locale.ROOT);
+			try {
+				if (text.endsWith("ms")) {
+					return Duration.ofMillis(Long.parseLong(text.substring(0, text.length() - 2).trim()));
+				} else if (text.endsWith("s")) {
+					return Duration.ofSeconds(Long.parseLong(text.substring(0, text.length() - 1).trim()));
+				} else if (text.endsWith("m")) {
+					return Duration.ofMinutes(Long.parseLong(text.substring(0, text.length() - 1).trim()));
+				} else if (text.endsWith("h")) {
+					return Duration.ofHours(Long.parseLong(text.substring(0, text.length() - 1).trim()));
+				}
+				return Duration.ofMillis(Long.parseLong(text));
+			} catch (NumberFormatException e) {
+				return defaultValue;
+			}
+		}
+
+		public Map<String, String> asMap() {
+			return values;
+		}
+
+		public long getLoadedAt() {
+			return loadedAt;
+		}
 	}
 }
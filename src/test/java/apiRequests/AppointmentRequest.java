@@ -1,5 +1,7 @@
 package apiRequests;
 
+import java.util.Map;
+
 public class AppointmentRequest {
 
 	private int appointmentId;
@@ -20,6 +22,23 @@ public class AppointmentRequest {
 	private String cancelledRemarks;
 	private int departmentId;
 
+	/**
+	 * Builds the JSON body of an add-appointment request from a PostData row.
+	 * 
+	 * @param postData - {@link Map} of the PostData sheet
+	 * @return {@link String} request body
+	 */
+	public static String createBody(Map<String, String> postData) {
+		return "{ " + "\"FirstName\": \"" + postData.get("FirstName") + "\", " + "\"LastName\": \""
+				+ postData.get("LastName") + "\", " + "\"Gender\": \"" + postData.get("Gender") + "\", "
+				+ "\"Age\": \"" + postData.get("Age") + "\", " + "\"ContactNumber\": \""
+				+ postData.get("ContactNumber") + "\", " + "\"AppointmentDate\": \"" + postData.get("AppointmentDate")
+				+ "\", " + "\"AppointmentTime\": \"" + postData.get("AppointmentTime") + "\", "
+				+ "\"PerformerName\": \"" + postData.get("PerformerName") + "\", " + "\"AppointmentType\": \""
+				+ postData.get("AppointmentType") + "\", " + "\"DepartmentId\": " + postData.get("DepartmentId")
+				+ " }";
+	}
+
 	public String getFirstName() {
 		return firstName;
 	}
@@ -0,0 +1,123 @@
+package coreUtilities.testutils;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.Test;
+
+import coreUtilities.testutils.FixtureRegistry.Key;
+import coreUtilities.testutils.FixtureRegistry.Scope;
+
+public class FixtureRegistryTest {
+
+	@AfterMethod
+	public void reset() {
+		FixtureRegistry.reset();
+		FixtureRegistry.exitInvocation();
+	}
+
+	@Test
+	public void getOrCreateRunsFactoryOncePerSuiteUnderContention() throws Exception {
+		final Key<Object> key = Key.of("shared", Object.class, Scope.SUITE);
+		final AtomicInteger created = new AtomicInteger();
+		final CountDownLatch start = new CountDownLatch(1);
+		ExecutorService executor = Executors.newFixedThreadPool(8);
+		try {
+			List<Callable<Object>> callers = new ArrayList<>();
+			for (int i = 0; i < 8; i++) {
+				callers.add(() -> {
+					start.await();
+					return FixtureRegistry.getOrCreate(key, () -> {
+						created.incrementAndGet();
+						sleep(50);
+						return new Object();
+					});
+				});
+			}
+			List<Future<Object>> results = new ArrayList<>();
+			for (Callable<Object> caller : callers) {
+				results.add(executor.submit(caller));
+			}
+			start.countDown();
+			Object first = results.get(0).get();
+			for (Future<Object> result : results) {
+				Assert.assertSame(result.get(), first);
+			}
+			Assert.assertEquals(created.get(), 1);
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	@Test
+	public void getOrCreateRetriesAfterFactoryFailure() {
+		Key<String> key = Key.of("retry", String.class, Scope.SUITE);
+		try {
+			FixtureRegistry.getOrCreate(key, () -> {
+				throw new IllegalStateException("boom");
+			});
+			Assert.fail("factory failure should propagate");
+		} catch (IllegalStateException expected) {
+			// scope stays empty
+		}
+		Assert.assertEquals(FixtureRegistry.getOrCreate(key, () -> "second"), "second");
+	}
+
+	@Test
+	public void consumerAwaitsProducer() throws Exception {
+		final Key<Integer> key = Key.of("produced", Integer.class, Scope.SUITE);
+		Thread producer = new Thread(() -> {
+			sleep(50);
+			FixtureRegistry.put(key, 42);
+		});
+		producer.start();
+		Assert.assertEquals(FixtureRegistry.await(key, Duration.ofSeconds(5)), Integer.valueOf(42));
+		producer.join();
+		Assert.assertEquals(FixtureRegistry.get(key), Integer.valueOf(42));
+	}
+
+	@Test(expectedExceptions = IllegalStateException.class, expectedExceptionsMessageRegExp = "Producer of .* failed")
+	public void failedProducerReleasesConsumer() {
+		Key<Integer> key = Key.of("failed", Integer.class, Scope.SUITE);
+		FixtureRegistry.fail(key, new AssertionError("producer failed"));
+		FixtureRegistry.await(key, Duration.ofSeconds(5));
+	}
+
+	@Test
+	public void classScopeIsKeptPerTestClass() {
+		Key<String> key = Key.of("perClass", String.class, Scope.CLASS);
+		FixtureRegistry.enterInvocation(String.class);
+		FixtureRegistry.put(key, "string");
+		FixtureRegistry.enterInvocation(Integer.class);
+		Assert.assertNull(FixtureRegistry.get(key));
+		FixtureRegistry.enterInvocation(String.class);
+		Assert.assertEquals(FixtureRegistry.get(key), "string");
+	}
+
+	@Test
+	public void invocationScopeEndsWithInvocation() {
+		Key<String> key = Key.of("perInvocation", String.class, Scope.INVOCATION);
+		FixtureRegistry.enterInvocation(getClass());
+		FixtureRegistry.put(key, "value");
+		Assert.assertEquals(FixtureRegistry.get(key), "value");
+		FixtureRegistry.exitInvocation();
+		Assert.assertNull(FixtureRegistry.get(key));
+	}
+
+	private static void sleep(long millis) {
+		try {
+			Thread.sleep(millis);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
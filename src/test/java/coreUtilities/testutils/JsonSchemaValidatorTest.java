@@ -0,0 +1,110 @@
+package coreUtilities.testutils;
+
+import java.io.IOException;
+import java.util.List;
+
+import org.testng.Assert;
+import org.testng.Reporter;
+import org.testng.annotations.Test;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+public class JsonSchemaValidatorTest {
+
+	private static final ObjectMapper mapper = new ObjectMapper();
+
+	@Test
+	public void shippedSchemaChecksTypesAndFormats() throws IOException {
+		JsonSchemaValidator schema = JsonSchemaValidator.forEndpoint("admittedPatientData");
+		Assert.assertNotNull(schema);
+		Assert.assertTrue(schema.validate(mapper.readTree(
+				"{\"Status\":\"OK\",\"Results\":[{\"PatientId\":1,\"AdmittedDate\":\"2024-01-31T10:00:00\"}]}"))
+				.isEmpty());
+
+		List<String> failures = schema.validate(mapper
+				.readTree("{\"Status\":\"OK\",\"Results\":[{\"PatientId\":\"1\",\"AdmittedDate\":\"31/01/2024\"}]}"));
+		Assert.assertEquals(failures.size(), 2, failures.toString());
+		Assert.assertTrue(failures.contains("$.Results[0].PatientId: expected integer but was string"),
+				failures.toString());
+	}
+
+	@Test
+	public void shippedSchemaLeavesPresenceToTheRegistry() throws IOException {
+		// missing fields, a failed status and an empty list are reported by ResponseFieldRegistry only
+		JsonSchemaValidator schema = JsonSchemaValidator.forEndpoint("admittedPatientData");
+		Assert.assertTrue(schema.validate(mapper.readTree("{\"Status\":\"FAIL\",\"Results\":[{}]}")).isEmpty());
+		Assert.assertTrue(schema.validate(mapper.readTree("{\"Results\":[]}")).isEmpty());
+	}
+
+	@Test
+	public void endpointWithoutSchemaHasNoValidator() {
+		Assert.assertNull(JsonSchemaValidator.forEndpoint("createAppointmentWithAuth"));
+	}
+
+	@Test
+	public void compiledKeywordsAreChecked() throws IOException {
+		JsonSchemaValidator schema = JsonSchemaValidator.compile(mapper.readTree("{\"type\":\"object\","
+				+ "\"required\":[\"id\"],\"additionalProperties\":false,\"properties\":{"
+				+ "\"id\":{\"type\":\"integer\",\"minimum\":1,\"maximum\":9},"
+				+ "\"name\":{\"type\":[\"string\",\"null\"],\"minLength\":2},"
+				+ "\"kind\":{\"enum\":[\"A\",\"B\"]},"
+				+ "\"tags\":{\"type\":\"array\",\"minItems\":1,\"maxItems\":2,\"items\":{\"type\":\"string\"}}}}"));
+
+		Assert.assertTrue(schema.validate(mapper.readTree("{\"id\":5,\"name\":null,\"kind\":\"A\",\"tags\":[\"x\"]}"))
+				.isEmpty());
+		List<String> failures = schema
+				.validate(mapper.readTree("{\"id\":10,\"name\":\"x\",\"kind\":\"C\",\"tags\":[1,\"a\",\"b\"],\"x\":0}"));
+		Assert.assertEquals(failures.size(), 6, failures.toString());
+		Assert.assertTrue(failures.contains("$: unexpected property x"), failures.toString());
+		Assert.assertTrue(failures.contains("$.tags[0]: expected string but was integer"), failures.toString());
+		Assert.assertEquals(schema.validate(mapper.readTree("{}")).toString(), "[$: missing required property id]");
+	}
+
+	@Test(expectedExceptions = IllegalArgumentException.class)
+	public void unknownTypeIsRejected() throws IOException {
+		JsonSchemaValidator.compile(mapper.readTree("{\"type\":\"date\"}"));
+	}
+
+	/**
+	 * 50,000 items take the parallel path; the time per validation is written to
+	 * the TestNG report output for comparison between changes.
+	 */
+	@Test
+	public void largeListIsValidatedInParallelUpToTheFailureCap() {
+		ObjectNode response = mapper.createObjectNode();
+		response.put("Status", "OK");
+		ArrayNode results = response.putArray("Results");
+		for (int i = 0; i < 50000; i++) {
+			results.addObject().put("ItemId", i + 1).put("ItemName", "item" + i);
+		}
+		JsonSchemaValidator schema = JsonSchemaValidator.forEndpoint("AllStockDetailsWithAuth");
+
+		for (int run = 0; run < 5; run++) {
+			long start = System.nanoTime();
+			Assert.assertTrue(schema.validate(response).isEmpty());
+			Reporter.log("50,000 valid items: " + (System.nanoTime() - start) / 1000 + " us");
+		}
+
+		for (int i = 0; i < results.size(); i += 2) {
+			((ObjectNode) results.get(i)).put("ItemId", "text");
+		}
+		long start = System.nanoTime();
+		List<String> failures = schema.validate(response);
+		Reporter.log("50,000 items, half invalid: " + (System.nanoTime() - start) / 1000 + " us");
+		Assert.assertEquals(failures.size(), 20, "capped at schema.max.failures");
+		for (String failure : failures) {
+			Assert.assertTrue(failure.matches("\\$\\.Results\\[\\d*[02468]\\]\\.ItemId: expected integer but was string"),
+					failure);
+		}
+	}
+
+	@Test
+	public void failurePathsNameTheNode() throws IOException {
+		JsonNode document = mapper.readTree("{\"Results\":[{\"PatientId\":1},{\"PatientId\":2.5}]}");
+		Assert.assertEquals(JsonSchemaValidator.forEndpoint("PatientConsumption").validate(document).toString(),
+				"[$.Results[1].PatientId: expected integer but was number]");
+	}
+}
@@ -0,0 +1,200 @@
+package coreUtilities.testutils;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.testng.Assert;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+public class ResponseFieldRegistryTest {
+
+	private static final ObjectMapper mapper = new ObjectMapper();
+
+	@Test
+	public void defaultRegistryIsReadFromTheClasspath() {
+		ResponseFieldRegistry registry = ResponseFieldRegistry.getDefault();
+		Assert.assertNotNull(registry.get("createAppointmentWithAuth"));
+		Assert.assertNull(registry.get("notAnEndpoint"));
+	}
+
+	/**
+	 * A response built to satisfy every rule of the endpoint, followed by
+	 * mutations that each break exactly one rule.
+	 */
+	@DataProvider(name = "endpoints")
+	public Object[][] endpoints() throws IOException {
+		JsonNode definitions = registryJson();
+		List<Object[]> endpoints = new ArrayList<>();
+		Iterator<String> names = definitions.fieldNames();
+		while (names.hasNext()) {
+			String name = names.next();
+			endpoints.add(new Object[] { name, definitions.get(name).get("fields") });
+		}
+		return endpoints.toArray(new Object[0][]);
+	}
+
+	@Test(dataProvider = "endpoints")
+	public void validResponsePassesAndEveryBrokenRuleIsReported(String endpointName, JsonNode fields) {
+		ResponseFieldRegistry.Endpoint endpoint = ResponseFieldRegistry.getDefault().get(endpointName);
+		ObjectNode valid = validResponse(fields);
+		Assert.assertEquals(endpoint.validate(valid), new ArrayList<String>(), endpointName + " " + valid);
+
+		for (Map.Entry<String, ObjectNode> mutation : mutations(fields, valid).entrySet()) {
+			Assert.assertFalse(endpoint.validate(mutation.getValue()).isEmpty(),
+					endpointName + ": " + mutation.getKey() + " should be reported");
+		}
+	}
+
+	@Test
+	public void everyViolationIsReported() throws IOException {
+		ResponseFieldRegistry registry = registry("{\"e\":{\"fields\":{\"Status\":{\"equals\":\"OK\"},"
+				+ "\"Results\":{\"type\":\"array\",\"fields\":[\"Id\"],\"nullFields\":[\"Gone\"]}}}}");
+		List<String> violations = registry.get("e")
+				.validate(mapper.readTree("{\"Status\":\"FAIL\",\"Results\":[{\"Gone\":1},{\"Id\":2}]}"));
+		Assert.assertEquals(violations.size(), 3, violations.toString());
+		Assert.assertTrue(violations.contains("Missing field in Results[0]: Id"), violations.toString());
+	}
+
+	@Test
+	public void emptySectionIsAllowedWhenDeclared() throws IOException {
+		ResponseFieldRegistry registry = registry(
+				"{\"e\":{\"fields\":{\"Results\":{\"type\":\"object\",\"allowEmpty\":true}}}}");
+		Assert.assertTrue(registry.get("e").validate(mapper.readTree("{\"Results\":{}}")).isEmpty());
+		Assert.assertFalse(registry.get("e").validate(mapper.readTree("{\"Results\":[]}")).isEmpty());
+	}
+
+	@Test(expectedExceptions = IllegalArgumentException.class)
+	public void unknownSectionTypeIsRejected() throws IOException {
+		registry("{\"e\":{\"fields\":{\"Results\":{\"type\":\"string\"}}}}");
+	}
+
+	private static ObjectNode validResponse(JsonNode fields) {
+		ObjectNode response = mapper.createObjectNode();
+		Iterator<Map.Entry<String, JsonNode>> rules = fields.fields();
+		while (rules.hasNext()) {
+			Map.Entry<String, JsonNode> rule = rules.next();
+			JsonNode definition = rule.getValue();
+			if (definition.has("type")) {
+				ObjectNode item = validItem(definition);
+				if (definition.get("type").asText().equals("array")) {
+					ArrayNode items = response.putArray(rule.getKey());
+					items.add(item);
+					items.add(item.deepCopy());
+				} else {
+					response.set(rule.getKey(), item);
+				}
+			} else if (definition.has("equals")) {
+				response.put(rule.getKey(), definition.get("equals").asText());
+			} else {
+				response.put(rule.getKey(), "value");
+			}
+		}
+		return response;
+	}
+
+	private static ObjectNode validItem(JsonNode definition) {
+		ObjectNode item = mapper.createObjectNode();
+		for (JsonNode field : definition.path("fields")) {
+			item.put(field.asText(), "value");
+		}
+		Iterator<Map.Entry<String, JsonNode>> values = definition.path("values").fields();
+		while (values.hasNext()) {
+			Map.Entry<String, JsonNode> value = values.next();
+			item.set(value.getKey(), value.getValue());
+		}
+		for (JsonNode field : definition.path("nullFields")) {
+			item.putNull(field.asText());
+		}
+		if (item.size() == 0) {
+			item.put("Id", 1);
+		}
+		return item;
+	}
+
+	private static Map<String, ObjectNode> mutations(JsonNode fields, ObjectNode valid) {
+		Map<String, ObjectNode> mutations = new LinkedHashMap<>();
+		Iterator<Map.Entry<String, JsonNode>> rules = fields.fields();
+		while (rules.hasNext()) {
+			Map.Entry<String, JsonNode> rule = rules.next();
+			String name = rule.getKey();
+			JsonNode definition = rule.getValue();
+
+			ObjectNode mutated = valid.deepCopy();
+			mutated.remove(name);
+			mutations.put(name + " removed", mutated);
+
+			mutated = valid.deepCopy();
+			mutated.putNull(name);
+			mutations.put(name + " null", mutated);
+
+			if (definition.has("equals")) {
+				mutated = valid.deepCopy();
+				mutated.put(name, "FAIL");
+				mutations.put(name + " changed", mutated);
+			}
+			if (!definition.has("type")) {
+				continue;
+			}
+			boolean array = definition.get("type").asText().equals("array");
+			mutated = valid.deepCopy();
+			mutated.put(name, "not a section");
+			mutations.put(name + " not a section", mutated);
+			if (!definition.path("allowEmpty").asBoolean(false)) {
+				mutated = valid.deepCopy();
+				if (array) {
+					mutated.putArray(name);
+				} else {
+					mutated.putObject(name);
+				}
+				mutations.put(name + " empty", mutated);
+			}
+			for (JsonNode field : definition.path("fields")) {
+				mutated = valid.deepCopy();
+				lastItem(mutated, name, array).remove(field.asText());
+				mutations.put(name + "." + field.asText() + " removed", mutated);
+			}
+			Iterator<Map.Entry<String, JsonNode>> values = definition.path("values").fields();
+			while (values.hasNext()) {
+				String key = values.next().getKey();
+				mutated = valid.deepCopy();
+				lastItem(mutated, name, array).put(key, "unexpected");
+				mutations.put(name + "." + key + " changed", mutated);
+			}
+			for (JsonNode field : definition.path("nullFields")) {
+				mutated = valid.deepCopy();
+				lastItem(mutated, name, array).put(field.asText(), "2024-01-01");
+				mutations.put(name + "." + field.asText() + " set", mutated);
+			}
+		}
+		return mutations;
+	}
+
+	private static ObjectNode lastItem(ObjectNode response, String section, boolean array) {
+		JsonNode value = response.get(section);
+		return (ObjectNode) (array ? value.get(value.size() - 1) : value);
+	}
+
+	private static JsonNode registryJson() throws IOException {
+		try (InputStream in = ResponseFieldRegistryTest.class.getClassLoader()
+				.getResourceAsStream("response_fields.json")) {
+			return mapper.readTree(in);
+		}
+	}
+
+	private static ResponseFieldRegistry registry(String json) throws IOException {
+		return ResponseFieldRegistry.load(new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)));
+	}
+}
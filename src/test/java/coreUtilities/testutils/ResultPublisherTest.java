@@ -0,0 +1,92 @@
+package coreUtilities.testutils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import com.sun.net.httpserver.HttpServer;
+
+import restConfig.ConfigManager;
+
+public class ResultPublisherTest {
+
+	private final List<String> received = new CopyOnWriteArrayList<>();
+	private final File journal = new File("target/result-publisher/journal.ndjson");
+	private final File deadLetter = new File("target/result-publisher/deadletter.ndjson");
+	private HttpServer server;
+
+	@BeforeClass
+	public void startStubEndpoint() throws IOException {
+		journal.getParentFile().mkdirs();
+		Files.deleteIfExists(journal.toPath());
+		Files.deleteIfExists(deadLetter.toPath());
+		server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+		server.createContext("/results", exchange -> {
+			String body = read(exchange.getRequestBody());
+			received.add(body);
+			exchange.sendResponseHeaders(body.contains("\"bad\"") ? 400 : 200, -1);
+			exchange.close();
+		});
+		server.start();
+		System.setProperty("results.publish.url",
+				"http://127.0.0.1:" + server.getAddress().getPort() + "/results");
+		System.setProperty("results.journal.file", journal.getPath());
+		System.setProperty("results.deadletter.file", deadLetter.getPath());
+		ConfigManager.reload();
+	}
+
+	@AfterClass(alwaysRun = true)
+	public void stopStubEndpoint() {
+		server.stop(0);
+		System.clearProperty("results.publish.url");
+		System.clearProperty("results.journal.file");
+		System.clearProperty("results.deadletter.file");
+		ConfigManager.reload();
+	}
+
+	@Test
+	public void rejectedPayloadIsDeadLetteredWithoutBlockingTheRest() throws Exception {
+		ResultPublisher.publish("{\"n\":1}");
+		ResultPublisher.publish("{\"n\":\"bad\"}");
+		ResultPublisher.publish("{\"n\":2}");
+		ResultPublisher.flush(5000);
+
+		Assert.assertEquals(received, Arrays.asList("{\"n\":1}", "{\"n\":\"bad\"}", "{\"n\":2}"));
+		Assert.assertFalse(journal.exists(), "a 4xx must not be journaled");
+		Assert.assertEquals(Files.readAllLines(deadLetter.toPath(), StandardCharsets.UTF_8),
+				Collections.singletonList("{\"n\":\"bad\"}"));
+
+		// the endpoint is not paused, so the next result goes out without a flush
+		ResultPublisher.publish("{\"n\":3}");
+		long deadline = System.currentTimeMillis() + 5000;
+		while (received.size() < 4 && System.currentTimeMillis() < deadline) {
+			Thread.sleep(10);
+		}
+		ResultPublisher.flush(5000);
+		Assert.assertEquals(received.subList(3, received.size()), Collections.singletonList("{\"n\":3}"),
+				"the rejected payload is not resent");
+	}
+
+	private static String read(InputStream in) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		byte[] buffer = new byte[1024];
+		int n;
+		while ((n = in.read(buffer)) != -1) {
+			out.write(buffer, 0, n);
+		}
+		return new String(out.toByteArray(), StandardCharsets.UTF_8);
+	}
+}
@@ -0,0 +1,138 @@
+package coreUtilities.testutils;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import rest.EndpointTimingFilter.EndpointTiming;
+
+public class RunHistoryStoreTest {
+
+	private File file;
+
+	@BeforeMethod
+	public void createFile() throws IOException {
+		file = File.createTempFile("history", ".log");
+	}
+
+	@AfterMethod
+	public void deleteFile() {
+		file.delete();
+	}
+
+	@Test
+	public void tornTailIsCutOffAndLaterAppendsAreReadable() throws Exception {
+		RunHistoryStore store = new RunHistoryStore(file, 10);
+		store.append(record("a", TestRecord.PASSED, 100));
+		store.append(record("b", TestRecord.FAILED, 200));
+		store.flush();
+		long validLength = file.length();
+
+		// a record cut off halfway, as a killed run leaves it
+		try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+			raf.seek(validLength);
+			raf.writeInt(64);
+			raf.write(new byte[] { 1, 2, 3 });
+		}
+
+		RunHistoryStore reopened = new RunHistoryStore(file, 10);
+		Assert.assertEquals(file.length(), validLength);
+		Assert.assertEquals(reopened.lastDurations(key("a"), 10), Collections.singletonList(100L));
+		Assert.assertEquals(reopened.failureRate(key("b")), 1.0);
+
+		reopened.append(record("a", TestRecord.PASSED, 150));
+		reopened.flush();
+		RunHistoryStore again = new RunHistoryStore(file, 10);
+		Assert.assertEquals(again.lastDurations(key("a"), 10), Arrays.asList(100L, 150L));
+	}
+
+	@Test
+	public void corruptRecordEndsTheLog() throws Exception {
+		RunHistoryStore store = new RunHistoryStore(file, 10);
+		store.append(record("a", TestRecord.PASSED, 100));
+		store.flush();
+		long firstEnd = file.length();
+		store.append(record("a", TestRecord.PASSED, 200));
+		store.flush();
+
+		// flip a byte of the second record's payload so its CRC no longer matches
+		byte[] bytes = Files.readAllBytes(file.toPath());
+		bytes[(int) firstEnd + 6] ^= 0x7f;
+		Files.write(file.toPath(), bytes);
+
+		RunHistoryStore reopened = new RunHistoryStore(file, 10);
+		Assert.assertEquals(reopened.lastDurations(key("a"), 10), Collections.singletonList(100L));
+		Assert.assertEquals(file.length(), firstEnd);
+	}
+
+	@Test
+	public void parametersAreKeptPerInvocationAndSummedPerRunForTheMethod() throws Exception {
+		RunHistoryStore first = new RunHistoryStore(file, 10);
+		first.append(new TestRecord("C", "m", TestRecord.PASSED, 0, 100, null, null, "[1]"));
+		first.append(new TestRecord("C", "m", TestRecord.FAILED, 0, 300, null, null, "[2]"));
+		first.append(new TestRecord("C", "m", TestRecord.PASSED, 0, 200, null, null, "[3]"));
+		first.flush();
+		// run ids are start times in milliseconds
+		Thread.sleep(5);
+		RunHistoryStore second = new RunHistoryStore(file, 10);
+		second.append(new TestRecord("C", "m", TestRecord.PASSED, 0, 110, null, null, "[1]"));
+		second.append(new TestRecord("C", "m", TestRecord.PASSED, 0, 310, null, null, "[2]"));
+		second.append(new TestRecord("C", "m", TestRecord.PASSED, 0, 210, null, null, "[3]"));
+
+		Assert.assertEquals(second.lastDurations(RunHistoryStore.testKey("C", "m", "[1]"), 10), Arrays.asList(100L, 110L));
+		Assert.assertEquals(second.failureRate(RunHistoryStore.testKey("C", "m", "[2]")), 0.5);
+		// one sample per run, the sum of its three rows
+		Assert.assertEquals(second.lastDurations(RunHistoryStore.testKey("C", "m"), 10), Arrays.asList(600L, 630L));
+		Assert.assertEquals(second.failureRate(RunHistoryStore.testKey("C", "m")), 0.5);
+		second.flush();
+
+		RunHistoryStore reopened = new RunHistoryStore(file, 10);
+		Assert.assertEquals(reopened.testKeys(), second.testKeys());
+		Assert.assertEquals(reopened.lastDurations(RunHistoryStore.testKey("C", "m"), 10), Arrays.asList(600L, 630L));
+	}
+
+	@Test
+	public void oldRunsAreCompactedAway() throws Exception {
+		for (int run = 1; run <= 3; run++) {
+			RunHistoryStore store = new RunHistoryStore(file, 10, 2);
+			store.append(record("a", TestRecord.PASSED, run * 100));
+			store.flush();
+			// run ids are start times in milliseconds
+			Thread.sleep(5);
+		}
+		long uncompacted = file.length();
+
+		RunHistoryStore compacted = new RunHistoryStore(file, 10, 2);
+		Assert.assertEquals(compacted.lastDurations(key("a"), 10), Arrays.asList(200L, 300L));
+		Assert.assertTrue(file.length() < uncompacted);
+		Assert.assertEquals(new RunHistoryStore(file, 10, 2).lastDurations(key("a"), 10), Arrays.asList(200L, 300L));
+	}
+
+	@Test
+	public void endpointTimingsAreIndexed() throws Exception {
+		RunHistoryStore store = new RunHistoryStore(file, 10);
+		store.append(new TestRecord("C", "m", TestRecord.PASSED, 0, 10, null,
+				Arrays.asList(new EndpointTiming("GET", "/x", 200, 40), new EndpointTiming("GET", "/x", 200, 60))));
+		store.flush();
+
+		RunHistoryStore reopened = new RunHistoryStore(file, 10);
+		Assert.assertEquals(reopened.endpointKeys(), Collections.singleton("GET /x"));
+		Assert.assertEquals(reopened.endpointPercentile("GET /x", 100), 60);
+	}
+
+	private static TestRecord record(String method, String status, long duration) {
+		return new TestRecord("C", method, status, 0, duration, null, null);
+	}
+
+	private static String key(String method) {
+		return RunHistoryStore.testKey("C", method);
+	}
+}
@@ -0,0 +1,105 @@
+package rest;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import rest.ContractFingerprintFilter.Shape;
+import restConfig.ConfigManager;
+
+public class ContractFingerprintFilterTest {
+
+	private static final ObjectMapper mapper = new ObjectMapper();
+
+	@Test
+	public void sameStructureHasTheSameHash() throws IOException {
+		Assert.assertEquals(shape("{\"Id\":1,\"Name\":\"a\"}").hash(), shape("{\"Name\":\"b\",\"Id\":2}").hash());
+		Assert.assertNotEquals(shape("{\"Id\":1}").hash(), shape("{\"Id\":\"1\"}").hash());
+	}
+
+	@Test
+	public void recordedResponsesDoNotDriftFromTheirBaseline() throws IOException {
+		List<String> responses = Arrays.asList("{\"Status\":\"OK\",\"Results\":[{\"Id\":1,\"Note\":null}]}",
+				"{\"Status\":\"OK\",\"Results\":[{\"Id\":2,\"Note\":\"x\",\"Extra\":true}]}",
+				"{\"Status\":\"OK\",\"Results\":[]}", "{\"Status\":\"OK\",\"Results\":[{\"Id\":3}]}");
+		Shape baseline = null;
+		for (String response : responses) {
+			baseline = Shape.merge(baseline, shape(response));
+		}
+		for (String response : responses) {
+			Assert.assertEquals(ContractFingerprintFilter.changes(baseline, shape(response)),
+					Collections.emptyList(), response);
+		}
+	}
+
+	@Test
+	public void keyMissingFromSomeRecordedObjectsIsOptional() throws IOException {
+		Shape baseline = Shape.merge(shape("{\"Id\":1,\"Middle\":\"m\"}"), shape("{\"Id\":2}"));
+		Assert.assertEquals(ContractFingerprintFilter.changes(baseline, shape("{\"Id\":3}")),
+				Collections.emptyList());
+		Assert.assertEquals(ContractFingerprintFilter.changes(baseline, shape("{\"Middle\":\"m\"}")),
+				Collections.singletonList("$.Id: removed"));
+	}
+
+	@Test
+	public void addedAndRetypedKeysAreReported() throws IOException {
+		Shape baseline = shape("{\"Status\":\"OK\",\"Results\":[{\"Id\":1,\"Name\":\"a\"}]}");
+		List<String> changes = ContractFingerprintFilter.changes(baseline,
+				shape("{\"Status\":\"OK\",\"Results\":[{\"Id\":\"1\",\"Name\":\"a\",\"Age\":3}]}"));
+		Assert.assertEquals(changes,
+				Arrays.asList("$.Results[].Id: type changed from [number] to [string]", "$.Results[].Age: added"));
+	}
+
+	@Test
+	public void nullIsCompatibleWithAnyType() throws IOException {
+		Shape baseline = shape("{\"Results\":{\"Id\":1}}");
+		Assert.assertEquals(ContractFingerprintFilter.changes(baseline, shape("{\"Results\":null}")),
+				Collections.emptyList());
+		Assert.assertEquals(ContractFingerprintFilter.changes(shape("{\"Results\":null}"), baseline),
+				Collections.emptyList());
+	}
+
+	@Test
+	public void baselineSurvivesSerialization() throws IOException {
+		Shape baseline = Shape.merge(shape("{\"Id\":1,\"Tags\":[\"a\"]}"), shape("{\"Id\":2,\"Note\":null}"));
+		Shape read = Shape.fromJson(mapper.readTree(mapper.writeValueAsString(baseline.toJson())));
+		Assert.assertEquals(read.hash(), baseline.hash());
+		Assert.assertEquals(ContractFingerprintFilter.changes(read, shape("{\"Id\":3}")), Collections.emptyList());
+	}
+
+	@Test
+	public void verifyWithoutBaselineFileTurnsItselfOff() {
+		File missing = new File("target/no-such-dir/contract_baselines.json");
+		Assert.assertNull(ContractFingerprintFilter.create("verify", missing));
+		Assert.assertNotNull(ContractFingerprintFilter.create("record", missing));
+	}
+
+	@Test(expectedExceptions = IllegalArgumentException.class)
+	public void unknownModeIsRejected() {
+		ContractFingerprintFilter.create("check", new File("unused"));
+	}
+
+	@Test
+	public void unknownModeIsLoggedAndLeavesTheFilterUninstalled() {
+		System.setProperty("contract.mode", "check");
+		ConfigManager.reload();
+		try {
+			ContractFingerprintFilter.install();
+			Assert.assertFalse(ContractFingerprintFilter.isInstalled());
+		} finally {
+			System.clearProperty("contract.mode");
+			ConfigManager.reload();
+		}
+	}
+
+	private static Shape shape(String json) throws IOException {
+		return Shape.of(mapper.readTree(json));
+	}
+}
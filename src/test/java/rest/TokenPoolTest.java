@@ -0,0 +1,94 @@
+package rest;
+
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import restConfig.ConfigManager;
+
+public class TokenPoolTest {
+
+	private static final TokenManager FIRST = TokenManager.ofStaticToken("first");
+	private static final TokenManager SECOND = TokenManager.ofStaticToken("second");
+
+	@Test
+	public void roundRobinRotatesOnEveryAcquire() {
+		TokenPool pool = new TokenPool(Arrays.asList(FIRST, SECOND), TokenPool.ROUND_ROBIN);
+		Assert.assertSame(pool.acquire(), FIRST);
+		Assert.assertSame(pool.acquire(), SECOND);
+		Assert.assertSame(pool.acquire(), FIRST);
+	}
+
+	@Test
+	public void perUserPinsEachThreadToOneAccount() throws Exception {
+		final TokenPool pool = new TokenPool(Arrays.asList(FIRST, SECOND), TokenPool.PER_USER);
+		TokenManager mine = pool.acquire();
+		Assert.assertSame(pool.acquire(), mine);
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+		try {
+			TokenManager other = executor.submit(pool::acquire).get();
+			Assert.assertNotSame(other, mine);
+		} finally {
+			executor.shutdownNow();
+		}
+		pool.unbind();
+	}
+
+	@Test
+	public void boundVirtualUserKeepsItsAccountUnderRoundRobin() {
+		TokenPool pool = new TokenPool(Arrays.asList(FIRST, SECOND), TokenPool.ROUND_ROBIN);
+		pool.bindVirtualUser(3);
+		Assert.assertSame(pool.acquire(), SECOND);
+		Assert.assertSame(pool.acquire(), SECOND);
+		pool.unbind();
+		Assert.assertSame(pool.acquire(), FIRST);
+	}
+
+	@Test
+	public void staticTokenServesItsHeader() {
+		Assert.assertEquals(FIRST.getToken(), "first");
+		Assert.assertEquals(FIRST.getAuthHeader(), "Bearer first");
+	}
+
+	@Test
+	public void pooledAccountDropsItsTokenOnConfigReload() {
+		// without a login endpoint an account serves auth.bearer.token
+		System.setProperty("auth.login.endpoint", "");
+		System.setProperty("auth.bearer.token", "before");
+		ConfigManager.reload();
+		try {
+			TokenManager account = new TokenPool(Arrays.asList(new TokenManager("alice", "secret")),
+					TokenPool.PER_USER).acquire();
+			Assert.assertEquals(account.getToken(), "before");
+			System.setProperty("auth.bearer.token", "after");
+			ConfigManager.reload();
+			Assert.assertEquals(account.getToken(), "after");
+		} finally {
+			System.clearProperty("auth.login.endpoint");
+			System.clearProperty("auth.bearer.token");
+			ConfigManager.reload();
+		}
+	}
+
+	@Test(expectedExceptions = IllegalArgumentException.class)
+	public void emptyPoolIsRejected() {
+		new TokenPool(Arrays.<TokenManager>asList(), TokenPool.PER_USER);
+	}
+
+	@Test(expectedExceptions = IllegalStateException.class, expectedExceptionsMessageRegExp = ".*auth.login.endpoint.*")
+	public void severalAccountsNeedALoginEndpoint() {
+		System.setProperty("auth.accounts", "alice:secret,bob:secret");
+		System.setProperty("auth.login.endpoint", "");
+		ConfigManager.reload();
+		try {
+			TokenPool.fromConfig();
+		} finally {
+			System.clearProperty("auth.accounts");
+			System.clearProperty("auth.login.endpoint");
+			ConfigManager.reload();
+		}
+	}
+}
@@ -0,0 +1,99 @@
+package testBase;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.testng.ISuite;
+import org.testng.ISuiteListener;
+
+import apiRequests.AppointmentRequest;
+import coreUtilities.testlisteners.ReportingPipeline;
+import coreUtilities.testutils.DataPool;
+import coreUtilities.utils.FileOperations;
+import rest.ApiUtil;
+import rest.CreatedEntityTracker;
+import rest.CustomResponse;
+import restConfig.ConfigManager;
+
+/**
+ * Suite listener that pre-creates test data concurrently when the suite
+ * starts, so tests that need e.g. an existing appointment take one from
+ * {@link #APPOINTMENTS} instead of creating it inline.
+ * <p>
+ * {@code datapool.appointments.size} appointments (one by default, for
+ * cancelAppointmentTest) are created on {@code datapool.threads} threads
+ * through {@link ApiUtil}, using the same PostData sheet as the appointment
+ * tests. A test that finds the pool empty creates its appointment itself.
+ * There is no patient pool: the API creates patients only as part of an
+ * appointment, and the patient tests read existing records. When the suite
+ * finishes, creations still in flight are given
+ * {@code datapool.shutdown.timeout} to complete, then
+ * {@link CreatedEntityTracker} cancels every appointment created during the
+ * run that is still open, including pooled ones nobody took.
+ */
+public class TestDataPools implements ISuiteListener {
+
+	private static final String EXCEL_FILE_PATH = "src/main/resources/config.xlsx";
+	private static final String SHEET_NAME = "PostData";
+
+	public static final DataPool<Integer> APPOINTMENTS = new DataPool<>("appointment", TestDataPools::createAppointment);
+
+	private ExecutorService executor;
+
+	@Override
+	public void onStart(ISuite suite) {
+		int appointments = ConfigManager.getInt("datapool.appointments.size", 1);
+		if (appointments <= 0) {
+			return;
+		}
+		final AtomicInteger threadNumber = new AtomicInteger();
+		executor = Executors.newFixedThreadPool(Math.max(1, ConfigManager.getInt("datapool.threads", 4)), r -> {
+			Thread thread = new Thread(r, "data-pool-" + threadNumber.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		});
+		APPOINTMENTS.provision(appointments, executor);
+	}
+
+	@Override
+	public void onFinish(ISuite suite) {
+		if (executor != null) {
+			// let creations in flight finish so their appointments are tracked
+			executor.shutdown();
+			try {
+				Duration timeout = ConfigManager.getDuration("datapool.shutdown.timeout", Duration.ofSeconds(30));
+				if (!executor.awaitTermination(timeout.toMillis(), TimeUnit.MILLISECONDS)) {
+					executor.shutdownNow();
+				}
+			} catch (InterruptedException e) {
+				executor.shutdownNow();
+				Thread.currentThread().interrupt();
+			}
+		}
+		// pooled appointments nobody took are tracked too
+		CreatedEntityTracker.cancelAll();
+		// the requests above were timed outside any test; write them to the result stream
+		ReportingPipeline.flush(ConfigManager.getDuration("report.flush.timeout", Duration.ofSeconds(60)).toMillis());
+	}
+
+	private static Integer createAppointment() {
+		Map<String, String> body;
+		try {
+			body = new FileOperations().readExcelPOI(EXCEL_FILE_PATH, SHEET_NAME);
+		} catch (Exception e) {
+			throw new IllegalStateException("Cannot read appointment data", e);
+		}
+		String requestBody = AppointmentRequest.createBody(body);
+
+		CustomResponse customResponse = new ApiUtil().createAppointmentWithAuth("/Appointment/AddAppointment",
+				requestBody);
+		if (customResponse.getAppointmentId() == null) {
+			throw new IllegalStateException("Appointment creation returned status " + customResponse.getStatusCode());
+		}
+		return customResponse.getAppointmentId();
+	}
+}
@@ -1,10 +1,12 @@
 package testcases;
 
 import java.io.IOException;
+import java.time.Duration;
 import java.time.LocalDate;
 import java.time.ZonedDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Random;
@@ -12,11 +14,23 @@ import java.util.Set;
 import java.util.stream.Collectors;
 
 import org.testng.Assert;
+import org.testng.annotations.DataProvider;
 import org.testng.annotations.Test;
 
+import apiRequests.AppointmentRequest;
+import coreUtilities.testutils.Consumes;
+import coreUtilities.testutils.DataRows;
+import coreUtilities.testutils.FixtureRegistry;
+import coreUtilities.testutils.FixtureRegistry.Key;
+import coreUtilities.testutils.FixtureRegistry.Scope;
+import coreUtilities.testutils.Produces;
+import coreUtilities.utils.AsyncLogSink;
 import coreUtilities.utils.FileOperations;
 import rest.ApiUtil;
+import rest.CreatedEntityTracker;
 import rest.CustomResponse;
+import restConfig.ConfigManager;
+import testBase.TestDataPools;
 
 public class RestAssured_TestCases_PL1 {
 
@@ -25,9 +39,8 @@ public class RestAssured_TestCases_PL1 {
 	private final String EXCEL_FILE_PATH = "src/main/resources/config.xlsx"; // Path to the Excel file
 	private final String SHEET_NAME = "PostData"; // Sheet name in the Excel file
 	private final String FILEPATH = "src/main/java/rest/ApiUtil.java";
-	ApiUtil apiUtil;
-
-	public static int appointmentId;
+	// ApiUtil keeps no state, one per test thread is enough
+	private static final Key<ApiUtil> API_UTIL = Key.of("apiUtil", ApiUtil.class, Scope.THREAD);
 
 	@Test(priority = 1, groups = { "PL1" }, description = "Precondition: Create an appointment via the API\n"
 			+ "1. Send POST request to create a new appointment with provided data\n"
@@ -37,27 +50,10 @@ public class RestAssured_TestCases_PL1 {
 
 		Map<String, String> body = fileOperations.readExcelPOI(EXCEL_FILE_PATH, SHEET_NAME);
 
-		apiUtil = new ApiUtil();
-
-		// Retrieve values from the Map
-		String firstName = body.get("FirstName");
-		String lastName = body.get("LastName");
-		String gender = body.get("Gender");
-		String age = body.get("Age");
-		String contactNumber = body.get("ContactNumber");
-		String appointmentDate = body.get("AppointmentDate");
-		String appointmentTime = body.get("AppointmentTime");
-		String performerName = body.get("PerformerName");
-		String appointmentType = body.get("AppointmentType");
-		String departmentId = body.get("DepartmentId");
-
-		// Construct the JSON payload as a string
-		String requestBody = "{ " + "\"FirstName\": \"" + firstName + "\", " + "\"LastName\": \"" + lastName + "\", "
-				+ "\"Gender\": \"" + gender + "\", " + "\"Age\": \"" + age + "\", " + "\"ContactNumber\": \""
-				+ contactNumber + "\", " + "\"AppointmentDate\": \"" + appointmentDate + "\", "
-				+ "\"AppointmentTime\": \"" + appointmentTime + "\", " + "\"PerformerName\": \"" + performerName
-				+ "\", " + "\"AppointmentType\": \"" + appointmentType + "\", " + "\"DepartmentId\": " + departmentId
-				+ " }";
+		ApiUtil apiUtil = FixtureRegistry.getOrCreate(API_UTIL, ApiUtil::new);
+
+		// Construct the JSON payload from the PostData row
+		String requestBody = AppointmentRequest.createBody(body);
 
 		CustomResponse customResponse = apiUtil.createAppointmentWithAuth("/Appointment/AddAppointment", requestBody);
 
@@ -80,19 +76,18 @@ public class RestAssured_TestCases_PL1 {
 				"Status should be OK.");
 
 		// Parse the "Results" object
-		appointmentId = customResponse.getAppointmentId();
+		Integer appointmentId = customResponse.getAppointmentId();
 		Assert.assertNotNull(appointmentId, "Appointment ID should not be null.");
 
 		// Print the full response body
-		System.out.println("Create Appointment Response:");
-		customResponse.getResponse().prettyPrint();
+		AsyncLogSink.logResponse("Create Appointment Response:", customResponse.getResponse());
 	}
 
 	@Test(priority = 2, groups = { "PL1" }, description = "Precondition: Multiple applicable doctors must exist\n"
 			+ "1. Validate that the response contains list of Doctors\n"
 			+ "2. Verify the response status code is 200.\n" + "3. Verify Performer IDs are unique")
 	public void getAllApplicableDoctorsTest() throws IOException {
-		apiUtil = new ApiUtil();
+		ApiUtil apiUtil = FixtureRegistry.getOrCreate(API_UTIL, ApiUtil::new);
 		CustomResponse customResponse = apiUtil.getAllApplicableDoctorsWithAuth("/Visit/AppointmentApplicableDoctors",
 				null);
 
@@ -121,20 +116,21 @@ public class RestAssured_TestCases_PL1 {
 
 		Assert.assertEquals(performerIds.size(), results.size(), "Each doctor should have a unique PerformerId.");
 
-		System.out.println("Appointment Applicable Doctors List Response:");
-		customResponse.getResponse().prettyPrint();
+		AsyncLogSink.logResponse("Appointment Applicable Doctors List Response:", customResponse.getResponse());
 	}
 
 	@Test(priority = 3, groups = {
-			"PL1" }, dependsOnMethods = "createAppointmentTest", description = "Precondition: An appointment must be created successfully.\n"
+			"PL1" }, description = "Precondition: An appointment must be created successfully.\n"
 					+ "1. Validate that the appointment ID is not null.\n"
 					+ "2. Send a PUT request to cancel the appointment using the appointment ID.\n"
 					+ "3. Verify the response status code is 200.\n"
 					+ "4. Validate the response indicates successful cancellation.")
 	public void cancelAppointmentTest() throws IOException {
-		apiUtil = new ApiUtil();
+		ApiUtil apiUtil = FixtureRegistry.getOrCreate(API_UTIL, ApiUtil::new);
 
-		Assert.assertNotNull(appointmentId, "Appointment ID should be set by the createAppointmentTest.");
+		// pre-created at suite start; created here if the pool is empty
+		Integer appointmentId = TestDataPools.APPOINTMENTS.take(Duration.ofSeconds(60));
+		Assert.assertNotNull(appointmentId, "Appointment ID should not be null.");
 
 		// Call the updated method
 		CustomResponse customResponse = apiUtil.cancelAppointmentWithAuth(
@@ -161,10 +157,10 @@ public class RestAssured_TestCases_PL1 {
 		String resultMessage = customResponse.getResultMessage();
 		Assert.assertEquals(resultMessage, "Appointment information updated successfully.",
 				"Message should confirm the update.");
+		CreatedEntityTracker.untrackAppointment(appointmentId);
 
 		// Print the response from canceling the appointment
-		System.out.println("Cancelled Appointment Response:");
-		customResponse.getResponse().prettyPrint();
+		AsyncLogSink.logResponse("Cancelled Appointment Response:", customResponse.getResponse());
 	}
 
 	@Test(priority = 4, groups = {
@@ -172,7 +168,7 @@ public class RestAssured_TestCases_PL1 {
 					+ "1. Validate clashing appointments.\n" + "2. Verify response status code and results.")
 	public void clashAppointmentTest() throws Exception {
 		Map<String, String> clashedData = fileOperations.readExcelPOI(EXCEL_FILE_PATH, SHEET_NAME);
-		apiUtil = new ApiUtil();
+		ApiUtil apiUtil = FixtureRegistry.getOrCreate(API_UTIL, ApiUtil::new);
 
 		String requestDate = clashedData.get("requestDate");
 		String performerId = clashedData.get("performerId");
@@ -201,14 +197,13 @@ public class RestAssured_TestCases_PL1 {
 		String resultMessage = customResponse.getResultMessage();
 		Assert.assertEquals(resultMessage, "false", "Clashing status should confirm no clash.");
 
-		System.out.println("Clash Appointment Response:");
-		customResponse.getResponse().prettyPrint();
+		AsyncLogSink.logResponse("Clash Appointment Response:", customResponse.getResponse());
 	}
 
 	@Test(priority = 5, groups = { "PL1" }, description = "Precondition: Patients must exist in the system.\n"
 			+ "1. Search for patients by query string.\n" + "2. Validate response status code and matching results.")
 	public void searchPatientTest() throws Exception {
-		apiUtil = new ApiUtil();
+		ApiUtil apiUtil = FixtureRegistry.getOrCreate(API_UTIL, ApiUtil::new);
 
 		CustomResponse customResponse = apiUtil.searchPatientWithAuth("/Patient/SearchRegisteredPatient?search=Test",
 				null);
@@ -238,8 +233,7 @@ public class RestAssured_TestCases_PL1 {
 		Assert.assertTrue(firstName.contains("Test"), "FirstName does not contain 'Test'.");
 		Assert.assertTrue(shortName.contains("Test"), "ShortName does not contain 'Test'.");
 
-		System.out.println("Search Patient Response:");
-		customResponse.getResponse().prettyPrint();
+		AsyncLogSink.logResponse("Search Patient Response:", customResponse.getResponse());
 	}
 
 	@Test(priority = 6, groups = {
@@ -248,7 +242,7 @@ public class RestAssured_TestCases_PL1 {
 					+ "2. Validate response status code and appointment dates.")
 	public void bookingListTest() throws Exception {
 		Map<String, String> searchResult = fileOperations.readExcelPOI(EXCEL_FILE_PATH, SHEET_NAME);
-		apiUtil = new ApiUtil();
+		ApiUtil apiUtil = FixtureRegistry.getOrCreate(API_UTIL, ApiUtil::new);
 
 		LocalDate currentDate = LocalDate.now();
 		LocalDate dateFiveDaysBefore = currentDate.minusDays(5);
@@ -288,13 +282,12 @@ public class RestAssured_TestCases_PL1 {
 							+ " to " + currentDateStr);
 		}
 
-		System.out.println("Booking List Response:");
-		customResponse.getResponse().prettyPrint();
+		AsyncLogSink.logResponse("Booking List Response:", customResponse.getResponse());
 	}
 
 	@Test(priority = 7, groups = { "PL1" }, description = "Retrieve and validate the complete list of stock details.")
 	public void AllStockDetailsTest() throws IOException {
-		apiUtil = new ApiUtil();
+		ApiUtil apiUtil = FixtureRegistry.getOrCreate(API_UTIL, ApiUtil::new);
 
 		CustomResponse customResponse = apiUtil.AllStockDetailsWithAuth("/PharmacyStock/AllStockDetails", null);
 
@@ -321,14 +314,13 @@ public class RestAssured_TestCases_PL1 {
 			Assert.assertNotNull(item.get("ItemId"), "ItemId should not be null.");
 		}
 
-		System.out.println("Stock Details Response:");
-		customResponse.getResponse().prettyPrint();
+		AsyncLogSink.logResponse("Stock Details Response:", customResponse.getResponse());
 	}
 
 	@Test(priority = 8, groups = {
 			"PL1" }, description = "Retrieve and validate the main store details from the pharmacy settings.")
 	public void MainStoreTest() throws IOException {
-		apiUtil = new ApiUtil();
+		ApiUtil apiUtil = FixtureRegistry.getOrCreate(API_UTIL, ApiUtil::new);
 
 		CustomResponse customResponse = apiUtil.MainStoreDetailsWithAuth("/PharmacySettings/MainStore", null);
 
@@ -353,13 +345,12 @@ public class RestAssured_TestCases_PL1 {
 		Assert.assertNotNull(results.get("StoreDescription"), "Store Description should not be null.");
 		Assert.assertNotNull(results.get("StoreId"), "StoreId should not be null.");
 
-		System.out.println("Main Store Details Response:");
-		customResponse.getResponse().prettyPrint();
+		AsyncLogSink.logResponse("Main Store Details Response:", customResponse.getResponse());
 	}
 
 	@Test(priority = 9, groups = { "PL1" }, description = "Retrieve and validate the list of pharmacy stores.")
 	public void PharmacyStoreTest() throws IOException {
-		apiUtil = new ApiUtil();
+		ApiUtil apiUtil = FixtureRegistry.getOrCreate(API_UTIL, ApiUtil::new);
 
 		CustomResponse customResponse = apiUtil.PharmacyStoresWithAuth("/Dispensary/PharmacyStores", null);
 
@@ -387,13 +378,12 @@ public class RestAssured_TestCases_PL1 {
 			Assert.assertNotNull(store.get("Name"), "Store Name should not be null.");
 		}
 
-		System.out.println("Pharmacy Stores Response:");
-		customResponse.getResponse().prettyPrint();
+		AsyncLogSink.logResponse("Pharmacy Stores Response:", customResponse.getResponse());
 	}
 
 	@Test(priority = 10, groups = { "PL1" }, description = "Retrieve and validate patient consumption details.")
 	public void PatientConsumptionTest() throws IOException {
-		apiUtil = new ApiUtil();
+		ApiUtil apiUtil = FixtureRegistry.getOrCreate(API_UTIL, ApiUtil::new);
 
 		CustomResponse customResponse = apiUtil.PatientConsumption("/PatientConsumption/PatientConsumptions", null);
 
@@ -418,13 +408,13 @@ public class RestAssured_TestCases_PL1 {
 			Assert.assertNotNull(patient.get("PatientName"), "PatientName should not be null.");
 		}
 
-		System.out.println("Patient Consumption Response:");
-		customResponse.getResponse().prettyPrint();
+		AsyncLogSink.logResponse("Patient Consumption Response:", customResponse.getResponse());
 	}
 
+	@Produces("activePharmacyCounter")
 	@Test(priority = 11, groups = { "PL1" }, description = "Activate a pharmacy counter and validate the response.")
 	public void ActivatePharmCountTest() throws Exception {
-		apiUtil = new ApiUtil();
+		ApiUtil apiUtil = FixtureRegistry.getOrCreate(API_UTIL, ApiUtil::new);
 
 		Map<String, String> searchResult = fileOperations.readExcelPOI(EXCEL_FILE_PATH, SHEET_NAME);
 		String counterId = searchResult.get("counterId");
@@ -452,13 +442,13 @@ public class RestAssured_TestCases_PL1 {
 		Assert.assertNotNull(results.get("CounterName"), "CounterName should not be null.");
 		Assert.assertNotNull(results.get("CounterId"), "CounterId should not be null.");
 
-		System.out.println("Activated Pharmacy Counter Response:");
-		customResponse.getResponse().prettyPrint();
+		AsyncLogSink.logResponse("Activated Pharmacy Counter Response:", customResponse.getResponse());
 	}
 
+	@Consumes("activePharmacyCounter")
 	@Test(priority = 12, groups = { "PL1" }, description = "Deactivate a pharmacy counter and validate the response.")
 	public void DeactivatePharmCountTest() throws IOException {
-		apiUtil = new ApiUtil();
+		ApiUtil apiUtil = FixtureRegistry.getOrCreate(API_UTIL, ApiUtil::new);
 
 		CustomResponse customResponse = apiUtil.DeactivatePharmCount("/Security/DeactivatePharmacyCounter", null);
 
@@ -481,14 +471,13 @@ public class RestAssured_TestCases_PL1 {
 		Assert.assertTrue(results.get("StatusCode").toString().equals("200"),
 				"StatusCode should be 200 but is " + results.get("StatusCode"));
 
-		System.out.println("Deactivated Pharmacy Counter Response:");
-		customResponse.getResponse().prettyPrint();
+		AsyncLogSink.logResponse("Deactivated Pharmacy Counter Response:", customResponse.getResponse());
 	}
 
 	@Test(priority = 13, groups = {
 			"PL1" }, description = "Retrieve and validate the list of appointment applicable departments.")
 	public void AppointApplicDeptTest() throws Exception {
-		apiUtil = new ApiUtil();
+		ApiUtil apiUtil = FixtureRegistry.getOrCreate(API_UTIL, ApiUtil::new);
 
 		CustomResponse customResponse = apiUtil.AppointApplicDept("/Master/AppointmentApplicableDepartments", null);
 
@@ -513,14 +502,13 @@ public class RestAssured_TestCases_PL1 {
 			Assert.assertNotNull(department.get("DepartmentName"), "DepartmentName should not be null.");
 		}
 
-		System.out.println("Appointment Applicable Departments Response:");
-		customResponse.getResponse().prettyPrint();
+		AsyncLogSink.logResponse("Appointment Applicable Departments Response:", customResponse.getResponse());
 	}
 
 	@Test(priority = 14, groups = {
 			"PL1" }, description = "Retrieve and validate the list of currently admitted patients.")
 	public void AdmittedPatientsData() throws Exception {
-		apiUtil = new ApiUtil();
+		ApiUtil apiUtil = FixtureRegistry.getOrCreate(API_UTIL, ApiUtil::new);
 
 		CustomResponse customResponse = apiUtil
 				.admittedPatientData("/Admission/AdmittedPatientsData?admissionStatus=admitted", null);
@@ -547,13 +535,12 @@ public class RestAssured_TestCases_PL1 {
 			Assert.assertNull(patient.get("DischargedDate"), "DischargedDate should be null for admitted patients.");
 		}
 
-		System.out.println("Admitted Patients Data Response:");
-		customResponse.getResponse().prettyPrint();
+		AsyncLogSink.logResponse("Admitted Patients Data Response:", customResponse.getResponse());
 	}
 
 	@Test(priority = 15, groups = { "PL1" }, description = "Add a new currency and validate the response.")
 	public void addcurrencyTest() throws Exception {
-		apiUtil = new ApiUtil();
+		ApiUtil apiUtil = FixtureRegistry.getOrCreate(API_UTIL, ApiUtil::new);
 
 		// Generate random currency code
 		String randomCurrencyCode = new Random().ints(5, 0, 26).mapToObj(i -> Character.toString((char) ('A' + i)))
@@ -599,16 +586,24 @@ public class RestAssured_TestCases_PL1 {
 		Assert.assertEquals(results.get("IsActive").toString(), "true", "IsActive should be True.");
 
 		// Log the response for debugging
-		System.out.println("Added Currency Response:");
-		customResponse.getResponse().prettyPrint();
+		AsyncLogSink.logResponse("Added Currency Response:", customResponse.getResponse());
 	}
 
-	@Test(priority = 16, groups = {
-			"PL1" }, description = "Find a patient with matching phone number and validate the response.")
-	public void findMatchingPatientTest() throws Exception {
-		apiUtil = new ApiUtil();
+	/**
+	 * Rows for {@link #findMatchingPatientTest(Map)}: the rows of
+	 * {@code datadriven.matchingPatient.rows} (file.json or file.xlsx#Sheet) when
+	 * set, otherwise the MatchingPatient record of config.xlsx.
+	 */
+	@DataProvider(name = "matchingPatients", parallel = true)
+	public Iterator<Object[]> matchingPatients() throws Exception {
+		String rows = ConfigManager.getProperty("datadriven.matchingPatient.rows", null);
+		return rows != null ? DataRows.from(rows) : DataRows.excelRecord(EXCEL_FILE_PATH, "MatchingPatient");
+	}
 
-		Map<String, String> postData = fileOperations.readExcelPOI(EXCEL_FILE_PATH, "MatchingPatient");
+	@Test(priority = 16, groups = {
+			"PL1" }, dataProvider = "matchingPatients", description = "Find a patient with matching phone number and validate the response.")
+	public void findMatchingPatientTest(Map<String, String> postData) throws Exception {
+		ApiUtil apiUtil = FixtureRegistry.getOrCreate(API_UTIL, ApiUtil::new);
 
 		// Extract values from the JSON
 		String firstName = postData.get("FirstName");
@@ -648,14 +643,13 @@ public class RestAssured_TestCases_PL1 {
 		Assert.assertEquals(actualPhoneNumber, phoneNumber, "Phone number does not match.");
 
 		// Log the response for debugging
-		System.out.println("Matching Patient Response:");
-		customResponse.getResponse().prettyPrint();
+		AsyncLogSink.logResponse("Matching Patient Response:", customResponse.getResponse());
 	}
 
 	@Test(priority = 17, groups = {
 			"PL1" }, description = "Retrieve all registered patients and validate unique Patient IDs.")
 	public void getAllRegisteredPatientsTest() throws IOException {
-		apiUtil = new ApiUtil();
+		ApiUtil apiUtil = FixtureRegistry.getOrCreate(API_UTIL, ApiUtil::new);
 
 		// Send the GET request
 		CustomResponse customResponse = apiUtil
@@ -688,14 +682,13 @@ public class RestAssured_TestCases_PL1 {
 		Assert.assertEquals(patientIds.size(), results.size(), "Each patient should have a unique PatientID.");
 
 		// Log the response for debugging
-		System.out.println("Registered Patients Response:");
-		customResponse.getResponse().prettyPrint();
+		AsyncLogSink.logResponse("Registered Patients Response:", customResponse.getResponse());
 	}
 
 	@Test(priority = 18, groups = {
 			"PL1" }, description = "Retrieve all billing counters and validate unique Counter IDs.")
 	public void getAllBillingCounters() throws IOException {
-		apiUtil = new ApiUtil();
+		ApiUtil apiUtil = FixtureRegistry.getOrCreate(API_UTIL, ApiUtil::new);
 
 		// Send the GET request
 		CustomResponse customResponse = apiUtil.getBillingCountersWithAuth("/billing/BillingCounters", null);
@@ -727,7 +720,6 @@ public class RestAssured_TestCases_PL1 {
 		Assert.assertEquals(counterIds.size(), results.size(), "Each counter should have a unique CounterID.");
 
 		// Log the response for debugging
-		System.out.println("Billing Counters Response:");
-		customResponse.getResponse().prettyPrint();
+		AsyncLogSink.logResponse("Billing Counters Response:", customResponse.getResponse());
 	}
 }
@@ -0,0 +1,183 @@
+package testcases;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Method declarations, bodies and called identifiers of a Java source file,
+ * parsed once per file content.
+ * <p>
+ * An index is looked up by path and reused while the file's modification time
+ * and length are unchanged; otherwise the file is read again and the index is
+ * shared by content hash, so a file restored to earlier content is not parsed
+ * again. Bodies are extracted the way {@link TestCodeValidator#fetchBody} always
+ * has, once per method, and the identifiers a body calls are collected in the
+ * same pass.
+ */
+public class SourceIndex {
+
+	private static final Pattern DECLARATION = Pattern
+			.compile("public\\s+CustomResponse\\s+(\\w+)\\s*\\(.*?\\)\\s*\\{(?=[\\s\\S]*?})");
+	private static final Pattern CALL = Pattern.compile("\\b(\\w+)\\s*\\(");
+
+	private static final Map<String, Snapshot> byPath = new ConcurrentHashMap<>();
+	private static final Map<String, SourceIndex> byHash = new ConcurrentHashMap<>();
+
+	private final String[] lines;
+	private final Set<String> customResponseMethods;
+	private final Map<String, MethodBody> bodies = new ConcurrentHashMap<>();
+
+	private SourceIndex(String content) {
+		this.lines = content.split("\r\n|[\r\n]", -1);
+		Set<String> methods = new HashSet<>();
+		Matcher matcher = DECLARATION.matcher(content);
+		while (matcher.find()) {
+			methods.add(matcher.group(1));
+		}
+		this.customResponseMethods = Collections.unmodifiableSet(methods);
+	}
+
+	/**
+	 * @param filePath - {@link String} Java source file
+	 * @return the index of the file's current content
+	 * @throws IOException if the file cannot be read
+	 */
+	public static SourceIndex of(String filePath) throws IOException {
+		File file = new File(filePath).getCanonicalFile();
+		Snapshot snapshot = byPath.get(file.getPath());
+		if (snapshot != null && snapshot.isCurrent(file)) {
+			return snapshot.index;
+		}
+		long lastModified = file.lastModified();
+		long length = file.length();
+		byte[] content = Files.readAllBytes(file.toPath());
+		SourceIndex index = byHash.computeIfAbsent(sha256(content),
+				hash -> new SourceIndex(new String(content, Charset.defaultCharset())));
+		byPath.put(file.getPath(), new Snapshot(lastModified, length, index));
+		return index;
+	}
+
+	/**
+	 * @param methodName - {@link String}
+	 * @return whether the file declares {@code public CustomResponse methodName(...)}
+	 *         with a body
+	 */
+	public boolean declaresCustomResponseMethod(String methodName) {
+		return customResponseMethods.contains(methodName);
+	}
+
+	/**
+	 * @param methodName - {@link String}
+	 * @return the method's source from its opening brace line to its closing
+	 *         brace line, or an empty string when it is not found
+	 */
+	public String body(String methodName) {
+		return bodyOf(methodName).text;
+	}
+
+	/**
+	 * @param methodName - {@link String}
+	 * @param identifier - {@link String} name of a method, e.g. "given"
+	 * @return whether the method's body contains {@code identifier(}
+	 */
+	public boolean calls(String methodName, String identifier) {
+		MethodBody body = bodyOf(methodName);
+		if (identifier.matches("\\w+")) {
+			return body.calls.contains(identifier);
+		}
+		return Pattern.compile("\\b" + identifier + "\\s*\\(").matcher(body.text).find();
+	}
+
+	private MethodBody bodyOf(String methodName) {
+		return bodies.computeIfAbsent(methodName, this::extract);
+	}
+
+	// line-based brace counting, as TestCodeValidator has always matched methods
+	private MethodBody extract(String methodName) {
+		StringBuilder methodBody = new StringBuilder();
+		boolean methodFound = false;
+		boolean inMethodBody = false;
+		int openBracesCount = 0;
+		int end = lines.length > 0 && lines[lines.length - 1].isEmpty() ? lines.length - 1 : lines.length;
+		for (int i = 0; i < end; i++) {
+			String line = lines[i];
+			if (line.contains("public CustomResponse " + methodName + "(")
+					|| line.contains("public String " + methodName + "(")
+					|| line.contains("public Response " + methodName + "(")) {
+				methodFound = true;
+			}
+			if (methodFound) {
+				if (line.contains("{")) {
+					inMethodBody = true;
+					openBracesCount++;
+				}
+				if (inMethodBody) {
+					methodBody.append(line).append("\n");
+				}
+				if (line.contains("}")) {
+					openBracesCount--;
+					if (openBracesCount == 0) {
+						break;
+					}
+				}
+			}
+		}
+		String text = methodBody.toString();
+		Set<String> calls = new HashSet<>();
+		Matcher matcher = CALL.matcher(text);
+		while (matcher.find()) {
+			calls.add(matcher.group(1));
+		}
+		return new MethodBody(text, Collections.unmodifiableSet(calls));
+	}
+
+	private static String sha256(byte[] content) {
+		try {
+			byte[] digest = MessageDigest.getInstance("SHA-256").digest(content);
+			StringBuilder hex = new StringBuilder(digest.length * 2);
+			for (byte b : digest) {
+				hex.append(String.format("%02x", b));
+			}
+			return hex.toString();
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException("SHA-256 is not available", e);
+		}
+	}
+
+	private static final class MethodBody {
+		private final String text;
+		private final Set<String> calls;
+
+		private MethodBody(String text, Set<String> calls) {
+			this.text = text;
+			this.calls = calls;
+		}
+	}
+
+	private static final class Snapshot {
+		private final long lastModified;
+		private final long length;
+		private final SourceIndex index;
+
+		private Snapshot(long lastModified, long length, SourceIndex index) {
+			this.lastModified = lastModified;
+			this.length = length;
+			this.index = index;
+		}
+
+		private boolean isCurrent(File file) {
+			return file.lastModified() == lastModified && file.length() == length;
+		}
+	}
+}